@@ -0,0 +1,149 @@
+package org.springframework.core.annotation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.core.annotation.BenchmarkFixtures.*;
+
+/**
+ * Cold alias checks of an annotation type and its meta-annotations, with all
+ * annotation caches cleared: validating the alias declarations, as done for
+ * unverified types, against looking the types up in the verified manifest.
+ * <p>The fixtures are verified into a temporary classes directory at setup and
+ * loaded from there, so that the manifest belongs to their class loader.
+ *
+ * @author Zicheng Zhang
+ * @see MyAliasVerifier
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AliasVerificationBenchmark {
+
+    private File classesDirectory;
+
+    private Class<? extends Annotation>[] types;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        this.classesDirectory = Files.createTempDirectory("alias-verification").toFile();
+        Class<?>[] fixtures = {Test7.class, Test6.class, Test5.class};
+        for (Class<?> fixture : fixtures) {
+            copyClassFile(fixture, this.classesDirectory);
+        }
+        ClassLoader classLoader = new FixtureClassLoader(this.classesDirectory, getClass().getClassLoader());
+        MyAliasVerifier.writeManifest(MyAliasVerifier.verify(this.classesDirectory, classLoader), this.classesDirectory);
+        // Verifying looked up the manifest before it was written
+        MyAnnotationUtils.clearCache();
+        this.types = new Class[fixtures.length];
+        for (int i = 0; i < fixtures.length; i++) {
+            this.types[i] = (Class<? extends Annotation>) classLoader.loadClass(fixtures[i].getName());
+        }
+        if (!verifiedLookup()) {
+            throw new IllegalStateException("Fixtures missing from the verified manifest");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        MyAnnotationUtils.clearCache();
+        FileSystemUtils.deleteRecursively(this.classesDirectory);
+    }
+
+    @Benchmark
+    public void validateAliases() {
+        MyAnnotationUtils.clearCache();
+        for (Class<? extends Annotation> type : this.types) {
+            MyAnnotationUtils.validateAliasDeclarations(type);
+        }
+    }
+
+    /**
+     * The verifier keeps no state per annotation type, so every lookup is cold
+     * once the manifest of the class loader has been loaded.
+     */
+    @Benchmark
+    public boolean verifiedLookup() {
+        boolean verified = true;
+        for (Class<? extends Annotation> type : this.types) {
+            verified &= MyAliasVerifier.isVerified(type);
+        }
+        return verified;
+    }
+
+    /**
+     * Includes loading the manifest, which happens once per class loader.
+     */
+    @Benchmark
+    public boolean verifiedLookupLoadingManifest() {
+        MyAnnotationUtils.clearCache();
+        boolean verified = true;
+        for (Class<? extends Annotation> type : this.types) {
+            verified &= MyAliasVerifier.isVerified(type);
+        }
+        return verified;
+    }
+
+    private static void copyClassFile(Class<?> type, File classesDirectory) throws IOException {
+        String path = ClassUtils.convertClassNameToResourcePath(type.getName()) + ClassUtils.CLASS_FILE_SUFFIX;
+        File file = new File(classesDirectory, path);
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Unable to create " + file.getParentFile());
+        }
+        FileCopyUtils.copy(FileCopyUtils.copyToByteArray(type.getClassLoader().getResourceAsStream(path)), file);
+    }
+
+
+    /**
+     * Loads the fixture annotation types from the classes directory rather
+     * than from its parent.
+     */
+    private static class FixtureClassLoader extends URLClassLoader {
+
+        FixtureClassLoader(File classesDirectory, ClassLoader parent) throws IOException {
+            super(new URL[]{classesDirectory.toURI().toURL()}, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(BenchmarkFixtures.class.getName() + "$")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    try {
+                        type = findClass(name);
+                    } catch (ClassNotFoundException ex) {
+                        return super.loadClass(name, resolve);
+                    }
+                }
+                return type;
+            }
+        }
+    }
+}
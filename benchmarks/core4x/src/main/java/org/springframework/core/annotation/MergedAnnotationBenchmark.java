@@ -0,0 +1,101 @@
+package org.springframework.core.annotation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.core.annotation.BenchmarkFixtures.*;
+
+/**
+ * Warm-cache lookups through {@link MyAnnotatedElementUtils} next to the
+ * equivalent {@link AnnotatedElementUtils} calls on {@link AliasFor} fixtures.
+ *
+ * <p>Each benchmark returns the synthesized annotation together with one
+ * attribute read, so that the cost of the proxy dispatch is included.
+ *
+ * @author Zicheng Zhang
+ * @see BenchmarkFixtures
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergedAnnotationBenchmark {
+
+    @Benchmark
+    public Object getMergedAnnotationMultipleTargets() {
+        return read(MyAnnotatedElementUtils.getMergedAnnotation(Element1.class, Test1.class).test1());
+    }
+
+    @Benchmark
+    public Object getMergedAnnotationSameLevelAliases() {
+        return read(MyAnnotatedElementUtils.getMergedAnnotation(Element3.class, Test4.class).test3());
+    }
+
+    @Benchmark
+    public Object getMergedAnnotationAliasChain() {
+        return read(MyAnnotatedElementUtils.getMergedAnnotation(Element4.class, Test5.class).test3());
+    }
+
+    @Benchmark
+    public Object findMergedAnnotationMultipleTargets() {
+        return read(MyAnnotatedElementUtils.findMergedAnnotation(Element1.class, Test1.class).test1());
+    }
+
+    @Benchmark
+    public Object findMergedAnnotationSameLevelAliases() {
+        return read(MyAnnotatedElementUtils.findMergedAnnotation(Element3.class, Test4.class).test3());
+    }
+
+    @Benchmark
+    public Object findMergedAnnotationAliasChain() {
+        return read(MyAnnotatedElementUtils.findMergedAnnotation(Element4.class, Test5.class).test3());
+    }
+
+    @Benchmark
+    public Object stockGetMergedAnnotationSingleTarget() {
+        return read(AnnotatedElementUtils.getMergedAnnotation(StockElement1.class, Test1.class).test1());
+    }
+
+    @Benchmark
+    public Object stockGetMergedAnnotationSameLevelAliases() {
+        return read(AnnotatedElementUtils.getMergedAnnotation(StockElement3.class, StockTest4.class).test2());
+    }
+
+    @Benchmark
+    public Object stockGetMergedAnnotationAliasChain() {
+        return read(AnnotatedElementUtils.getMergedAnnotation(StockElement4.class, StockTest5.class).test2());
+    }
+
+    @Benchmark
+    public Object stockFindMergedAnnotationSingleTarget() {
+        return read(AnnotatedElementUtils.findMergedAnnotation(StockElement1.class, Test1.class).test1());
+    }
+
+    @Benchmark
+    public Object stockFindMergedAnnotationSameLevelAliases() {
+        return read(AnnotatedElementUtils.findMergedAnnotation(StockElement3.class, StockTest4.class).test2());
+    }
+
+    @Benchmark
+    public Object stockFindMergedAnnotationAliasChain() {
+        return read(AnnotatedElementUtils.findMergedAnnotation(StockElement4.class, StockTest5.class).test2());
+    }
+
+    private static Object read(String value) {
+        if (!"override the method".equals(value)) {
+            throw new IllegalStateException("Unexpected merged attribute value: " + value);
+        }
+        return value;
+    }
+}
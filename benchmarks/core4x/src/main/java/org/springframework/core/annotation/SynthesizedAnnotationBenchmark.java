@@ -0,0 +1,65 @@
+package org.springframework.core.annotation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.core.annotation.BenchmarkFixtures.*;
+
+/**
+ * Attribute reads on synthesized annotations, backed either by a JDK dynamic
+ * proxy or by a generated class.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils#setGeneratedSynthesis(boolean)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SynthesizedAnnotationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean generatedSynthesis;
+
+    private Test5 annotation;
+
+    @Setup
+    public void setUp() {
+        MyAnnotationUtils.setGeneratedSynthesis(this.generatedSynthesis);
+        this.annotation = MyAnnotatedElementUtils.getMergedAnnotation(Element4.class, Test5.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MyAnnotationUtils.setGeneratedSynthesis(false);
+    }
+
+    @Benchmark
+    public String readAttribute() {
+        return this.annotation.test3();
+    }
+
+    @Benchmark
+    public int hashCodeOfAnnotation() {
+        return this.annotation.hashCode();
+    }
+
+    @Benchmark
+    public Object getMergedAnnotation() {
+        return MyAnnotatedElementUtils.getMergedAnnotation(Element4.class, Test5.class);
+    }
+}
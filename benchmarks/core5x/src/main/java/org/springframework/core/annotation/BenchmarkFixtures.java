@@ -0,0 +1,182 @@
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Composed annotations shared by the core5x benchmarks.
+ *
+ * <p>The {@code @MyAliasFor} fixtures mirror {@code AlisforsTests}; the
+ * {@code Stock*} fixtures express the closest equivalent with Spring's own
+ * {@link AliasFor}, which only supports a single alias per attribute.
+ *
+ * @author ZiCheng Zhang
+ */
+public class BenchmarkFixtures {
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Test1 {
+        String test1() default "test1";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Test2 {
+        String test2() default "test2";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Test1
+    @Test2
+    public @interface Test3 {
+
+        @MyAliasFor(annotation = Test1.class, attribute = "test1")
+        @MyAliasFor(annotation = Test2.class, attribute = "test2")
+        String test3() default "test3";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Test4 {
+
+        @MyAliasFor("test2")
+        @MyAliasFor("test3")
+        String test1() default "test";
+
+        @MyAliasFor("test1")
+        @MyAliasFor("test3")
+        String test2() default "test";
+
+        @MyAliasFor("test1")
+        @MyAliasFor("test2")
+        String test3() default "test";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Test5 {
+
+        @MyAliasFor("test2")
+        @MyAliasFor("test3")
+        String test1() default "test1";
+
+        @MyAliasFor("test1")
+        @MyAliasFor("test3")
+        String test2() default "test1";
+
+        @MyAliasFor("test1")
+        @MyAliasFor("test2")
+        String test3() default "test1";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Test5
+    public @interface Test6 {
+
+        @MyAliasFor("test5")
+        @MyAliasFor("test6")
+        String test4() default "test2";
+
+        @MyAliasFor("test4")
+        @MyAliasFor("test6")
+        String test5() default "test2";
+
+        @MyAliasFor(annotation = Test5.class, attribute = "test1")
+        @MyAliasFor("test4")
+        @MyAliasFor("test5")
+        String test6() default "test2";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Test6
+    public @interface Test7 {
+
+        @MyAliasFor(annotation = Test6.class, attribute = "test6")
+        String test7() default "test3";
+    }
+
+    @Test3(test3 = "override the method")
+    public static class Element1 {
+    }
+
+    @Test4(test1 = "override the method")
+    public static class Element3 {
+    }
+
+    @Test7(test7 = "override the method")
+    public static class Element4 {
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Test1
+    public @interface StockTest3 {
+
+        @AliasFor(annotation = Test1.class, attribute = "test1")
+        String test3() default "test3";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface StockTest4 {
+
+        @AliasFor("test2")
+        String test1() default "test";
+
+        @AliasFor("test1")
+        String test2() default "test";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface StockTest5 {
+
+        @AliasFor("test2")
+        String test1() default "test1";
+
+        @AliasFor("test1")
+        String test2() default "test1";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @StockTest5
+    public @interface StockTest6 {
+
+        @AliasFor("test2")
+        String test1() default "test2";
+
+        @AliasFor("test1")
+        String test2() default "test2";
+
+        @AliasFor(annotation = StockTest5.class, attribute = "test1")
+        String test3() default "test2";
+    }
+
+    @Target({ElementType.ANNOTATION_TYPE, ElementType.FIELD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @StockTest6
+    public @interface StockTest7 {
+
+        @AliasFor(annotation = StockTest6.class)
+        String test3() default "test3";
+    }
+
+    @StockTest3(test3 = "override the method")
+    public static class StockElement1 {
+    }
+
+    @StockTest4(test1 = "override the method")
+    public static class StockElement3 {
+    }
+
+    @StockTest7(test3 = "override the method")
+    public static class StockElement4 {
+    }
+}
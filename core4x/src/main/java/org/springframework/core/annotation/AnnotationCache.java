@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+/**
+ * Strategy interface for the internal metadata caches of {@link MyAnnotationUtils}.
+ *
+ * <p>Implementations must be thread-safe. A cache may drop entries at any
+ * time; callers simply recompute a missing value and {@link #put} it again.
+ * {@code null} values are never stored.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils#setCache(String, AnnotationCache)
+ * @see SoftReferenceAnnotationCache
+ * @see SegmentedLruAnnotationCache
+ * @since 4.3.28
+ */
+public interface AnnotationCache<K, V> {
+
+    /**
+     * Return the value cached for the given key.
+     *
+     * @param key the key to look up
+     * @return the cached value, or {@code null} if none
+     */
+    V get(K key);
+
+    /**
+     * Cache the given value for the given key, possibly evicting other entries.
+     *
+     * @param key   the key to cache the value for
+     * @param value the value to cache; {@code null} is ignored
+     */
+    void put(K key, V value);
+
+    /**
+     * Remove all entries from this cache.
+     */
+    void clear();
+
+    /**
+     * Return the current number of entries in this cache.
+     */
+    int size();
+
+    /**
+     * Return the number of entries this cache has dropped on its own accord,
+     * not counting {@link #clear()}.
+     */
+    long getEvictionCount();
+
+}
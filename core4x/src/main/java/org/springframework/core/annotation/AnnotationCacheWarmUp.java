@@ -0,0 +1,247 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Pre-populates the caches of {@link MyAnnotationUtils} and
+ * {@link MyAnnotatedElementUtils} for a set of classes, so that the first
+ * lookups at runtime do not pay the introspection cost.
+ *
+ * <p>For every given annotation type, the attribute alias descriptors are
+ * resolved first. Then each class, its declared methods and its declared
+ * fields are searched for each annotation type, with both <em>get</em> and
+ * <em>find</em> semantics, on the given {@link Executor} (by default the
+ * common {@link ForkJoinPool}), one task per class.
+ *
+ * @author Zicheng Zhang
+ * @see Report
+ * @since 4.3.28
+ */
+public abstract class AnnotationCacheWarmUp {
+
+    /**
+     * Warm up the annotation caches for the given classes, using the common
+     * {@link ForkJoinPool}.
+     *
+     * @param classes         the classes to introspect
+     * @param annotationTypes the annotation types to look up
+     * @return a report of the time spent per class
+     */
+    public static Report warmUp(Collection<Class<?>> classes, Set<Class<? extends Annotation>> annotationTypes) {
+        return warmUp(classes, annotationTypes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Warm up the annotation caches for the given classes.
+     *
+     * @param classes         the classes to introspect
+     * @param annotationTypes the annotation types to look up
+     * @param executor        the executor to run the introspection on
+     * @return a report of the time spent per class
+     */
+    public static Report warmUp(Collection<Class<?>> classes, final Set<Class<? extends Annotation>> annotationTypes,
+                                Executor executor) {
+
+        Assert.notNull(classes, "Classes must not be null");
+        Assert.notNull(annotationTypes, "Annotation types must not be null");
+        Assert.notNull(executor, "Executor must not be null");
+        long startTime = System.nanoTime();
+        for (Class<? extends Annotation> annotationType : annotationTypes) {
+            MyAnnotationUtils.getAttributeAliasMap(annotationType);
+        }
+        final Set<Class<?>> uniqueClasses = new LinkedHashSet<Class<?>>(classes);
+        final Map<Class<?>, Long> times = new ConcurrentHashMap<Class<?>, Long>();
+        final Map<Class<?>, Throwable> failures = new ConcurrentHashMap<Class<?>, Throwable>();
+        final CountDownLatch latch = new CountDownLatch(uniqueClasses.size());
+        for (final Class<?> clazz : uniqueClasses) {
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    long classStartTime = System.nanoTime();
+                    try {
+                        warmUp(clazz, annotationTypes);
+                    } catch (Throwable ex) {
+                        failures.put(clazz, ex);
+                    } finally {
+                        times.put(clazz, System.nanoTime() - classStartTime);
+                        latch.countDown();
+                    }
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                task.run();
+            }
+        }
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while warming up annotation caches", ex);
+        }
+        Map<Class<?>, Long> orderedTimes = new LinkedHashMap<Class<?>, Long>();
+        for (Class<?> clazz : uniqueClasses) {
+            orderedTimes.put(clazz, times.get(clazz));
+        }
+        return new Report(orderedTimes, failures, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Warm up the annotation caches for all classes in the given packages
+     * and their sub-packages, using the common {@link ForkJoinPool}.
+     * <p>Classes that cannot be loaded are skipped.
+     *
+     * @param basePackages    the packages to scan
+     * @param annotationTypes the annotation types to look up
+     * @param classLoader     the class loader to scan and load classes with
+     * @return a report of the time spent per class
+     * @throws IOException if scanning the packages fails
+     */
+    public static Report warmUpPackages(Collection<String> basePackages,
+                                        Set<Class<? extends Annotation>> annotationTypes,
+                                        ClassLoader classLoader) throws IOException {
+
+        return warmUp(findClasses(basePackages, classLoader), annotationTypes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Find all loadable classes in the given packages and their sub-packages.
+     *
+     * @param basePackages the packages to scan
+     * @param classLoader  the class loader to scan and load classes with
+     * @return the classes found
+     * @throws IOException if scanning the packages fails
+     */
+    public static List<Class<?>> findClasses(Collection<String> basePackages, ClassLoader classLoader)
+            throws IOException {
+
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory readerFactory = new SimpleMetadataReaderFactory(classLoader);
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (String basePackage : basePackages) {
+            String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
+                    ClassUtils.convertClassNameToResourcePath(basePackage) + "/**/*.class";
+            for (Resource resource : resolver.getResources(pattern)) {
+                MetadataReader reader = readerFactory.getMetadataReader(resource);
+                try {
+                    classes.add(ClassUtils.forName(reader.getClassMetadata().getClassName(), classLoader));
+                } catch (Throwable ex) {
+                    // Not loadable in this environment - skip it
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static void warmUp(Class<?> clazz, Set<Class<? extends Annotation>> annotationTypes) {
+        Method[] methods = clazz.getDeclaredMethods();
+        Field[] fields = clazz.getDeclaredFields();
+        for (Class<? extends Annotation> annotationType : annotationTypes) {
+            MyAnnotationUtils.findAnnotation(clazz, annotationType);
+            warmUp(clazz, annotationType);
+            for (Method method : methods) {
+                MyAnnotationUtils.findAnnotation(method, annotationType);
+                warmUp(method, annotationType);
+            }
+            for (Field field : fields) {
+                warmUp(field, annotationType);
+            }
+        }
+    }
+
+    private static void warmUp(AnnotatedElement element, Class<? extends Annotation> annotationType) {
+        MyAnnotatedElementUtils.getMergedAnnotation(element, annotationType);
+        MyAnnotatedElementUtils.findMergedAnnotation(element, annotationType);
+    }
+
+
+    /**
+     * The outcome of a warm-up run.
+     */
+    public static class Report {
+
+        private final Map<Class<?>, Long> times;
+
+        private final Map<Class<?>, Throwable> failures;
+
+        private final long totalTime;
+
+        Report(Map<Class<?>, Long> times, Map<Class<?>, Throwable> failures, long totalTime) {
+            this.times = Collections.unmodifiableMap(times);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.totalTime = totalTime;
+        }
+
+        /**
+         * Return the time spent introspecting each class, in nanoseconds,
+         * in the order in which the classes were given.
+         */
+        public Map<Class<?>, Long> getTimes() {
+            return this.times;
+        }
+
+        /**
+         * Return the exceptions thrown while introspecting classes, if any.
+         */
+        public Map<Class<?>, Throwable> getFailures() {
+            return this.failures;
+        }
+
+        /**
+         * Return the wall-clock time of the whole warm-up, in nanoseconds.
+         */
+        public long getTotalTime() {
+            return this.totalTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Warmed up annotation caches for " + this.times.size() + " classes in " +
+                    (this.totalTime / 1000000) + " ms (" + this.failures.size() + " failed)";
+        }
+    }
+
+}
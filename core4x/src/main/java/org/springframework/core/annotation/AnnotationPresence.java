@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * The annotation types <em>present</em> and <em>meta-present</em> on an
+ * annotated element, following <em>get semantics</em>, held as sorted arrays of
+ * {@link AnnotationTypeIds} so that presence checks are binary searches over
+ * the few types found on the element.
+ * <p>Instances are fully populated before they are published through a
+ * cache and are not modified afterwards.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotatedElementUtils#isAnnotated
+ * @see MyAnnotatedElementUtils#hasMetaAnnotationTypes
+ * @since 4.3.28
+ */
+final class AnnotationPresence {
+
+    private int[] types = AnnotationTypeIds.EMPTY_IDS;
+
+    private int[] metaTypes = AnnotationTypeIds.EMPTY_IDS;
+
+    private int[] names = AnnotationTypeIds.EMPTY_IDS;
+
+    private int[] metaNames = AnnotationTypeIds.EMPTY_IDS;
+
+
+    /**
+     * Record an annotation type found at the given meta-depth.
+     *
+     * @param annotationType the annotation type
+     * @param metaDepth      {@code 0} if present on the element, greater
+     *                       if meta-present
+     */
+    void add(Class<? extends Annotation> annotationType, int metaDepth) {
+        int typeId = AnnotationTypeIds.getTypeId(annotationType);
+        int nameId = AnnotationTypeIds.getNameId(annotationType.getName());
+        this.types = AnnotationTypeIds.add(this.types, typeId);
+        this.names = AnnotationTypeIds.add(this.names, nameId);
+        if (metaDepth > 0) {
+            this.metaTypes = AnnotationTypeIds.add(this.metaTypes, typeId);
+            this.metaNames = AnnotationTypeIds.add(this.metaNames, nameId);
+        }
+    }
+
+    /**
+     * Determine if the given annotation type is present or meta-present.
+     */
+    boolean isPresent(Class<? extends Annotation> annotationType) {
+        return AnnotationTypeIds.contains(this.types, AnnotationTypeIds.getTypeId(annotationType));
+    }
+
+    /**
+     * Determine if an annotation type of the given name is present or
+     * meta-present.
+     */
+    boolean isPresent(String annotationName) {
+        int nameId = AnnotationTypeIds.findNameId(annotationName);
+        return AnnotationTypeIds.contains(this.names, nameId);
+    }
+
+    /**
+     * Determine if the given annotation type is meta-present.
+     */
+    boolean isMetaPresent(Class<? extends Annotation> annotationType) {
+        return AnnotationTypeIds.contains(this.metaTypes, AnnotationTypeIds.getTypeId(annotationType));
+    }
+
+    /**
+     * Determine if an annotation type of the given name is meta-present.
+     */
+    boolean isMetaPresent(String annotationName) {
+        int nameId = AnnotationTypeIds.findNameId(annotationName);
+        return AnnotationTypeIds.contains(this.metaNames, nameId);
+    }
+
+}
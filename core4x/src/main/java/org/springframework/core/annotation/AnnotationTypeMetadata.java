@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Metadata attached to each annotation type through a {@link ClassValue},
+ * bundling the attribute methods, attribute aliases and synthesizability of
+ * the type in one holder.
+ *
+ * <p>Looking up the holder is close to a field load, unlike hashing into a
+ * {@code ConcurrentReferenceHashMap}, and it is unloaded together with the
+ * class loader of the type. Each kind of metadata is exposed as the default
+ * {@link AnnotationCache} of the corresponding named cache of
+ * {@link MyAnnotationUtils}, so that statistics, {@code clearCache()} and
+ * {@link MyAnnotationUtils#setCache replacement} keep working. Values are held
+ * softly, like in the {@code ConcurrentReferenceHashMap} caches, so that they
+ * can be released under memory pressure and once cleared.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils#ATTRIBUTE_METHODS_CACHE
+ * @see MyAnnotationUtils#ATTRIBUTE_ALIASES_CACHE
+ * @see MyAnnotationUtils#SYNTHESIZABLE_CACHE
+ * @since 4.3.28
+ */
+final class AnnotationTypeMetadata {
+
+    private static final String[] CACHE_NAMES = {MyAnnotationUtils.ATTRIBUTE_METHODS_CACHE,
+            MyAnnotationUtils.ATTRIBUTE_ALIASES_CACHE, MyAnnotationUtils.SYNTHESIZABLE_CACHE};
+
+    private static final ClassValue<AnnotationTypeMetadata> metadata = new ClassValue<AnnotationTypeMetadata>() {
+        @Override
+        protected AnnotationTypeMetadata computeValue(Class<?> type) {
+            return new AnnotationTypeMetadata();
+        }
+    };
+
+
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<Entry>(CACHE_NAMES.length);
+
+
+    private AnnotationTypeMetadata() {
+    }
+
+
+    /**
+     * Create a cache view over the metadata held for the given cache name.
+     *
+     * @param cacheName the name of one of the caches of {@link MyAnnotationUtils}
+     * @return the cache, or {@code null} if the named cache is not held per
+     * annotation type
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> AnnotationCache<K, V> createCache(String cacheName) {
+        for (int slot = 0; slot < CACHE_NAMES.length; slot++) {
+            if (CACHE_NAMES[slot].equals(cacheName)) {
+                return (AnnotationCache<K, V>) new SlotCache<Object>(slot);
+            }
+        }
+        return null;
+    }
+
+
+    private static final class Entry extends SoftReference<Object> {
+
+        private final int generation;
+
+        Entry(int generation, Object value) {
+            super(value);
+            this.generation = generation;
+        }
+    }
+
+
+    /**
+     * {@link AnnotationCache} over one slot of the per-type holders. Clearing
+     * bumps a generation rather than visiting every holder, which a
+     * {@link ClassValue} cannot enumerate; stale entries are ignored until
+     * they are overwritten or their soft reference is released. The size
+     * counts the entries published since the last clear, including released
+     * ones.
+     * <p>Callers must not publish values computed across a {@link #clear()},
+     * as {@link MyAnnotationUtils} ensures for its caches.
+     */
+    private static final class SlotCache<V> implements AnnotationCache<Class<? extends Annotation>, V> {
+
+        private final int slot;
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private volatile int generation;
+
+        SlotCache(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Class<? extends Annotation> key) {
+            Entry entry = metadata.get(key).entries.get(this.slot);
+            return (entry != null && entry.generation == this.generation ? (V) entry.get() : null);
+        }
+
+        @Override
+        public void put(Class<? extends Annotation> key, V value) {
+            if (value != null) {
+                int generation = this.generation;
+                Entry previous = metadata.get(key).entries.getAndSet(this.slot, new Entry(generation, value));
+                if (previous == null || previous.generation != generation) {
+                    this.size.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void clear() {
+            this.generation++;
+            this.size.set(0);
+        }
+
+        @Override
+        public int size() {
+            return this.size.get();
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The attributes of a target annotation type that are overridden by the
+ * attributes of an annotation type it is meta-present on, resolved once per
+ * pair of types for merging annotation attributes.
+ *
+ * <p>Each step names a source attribute and the target attributes its value
+ * is copied to: either the attribute declared through {@code @AliasFor}
+ * together with its aliases in the target (SPR-14069), or the attribute of
+ * the same name by convention. Target attributes overridden explicitly are
+ * overridden only once, as in the original per-merge algorithm.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils#getAttributeOverrideName
+ * @see MyAnnotatedElementUtils#getMergedAnnotationAttributes
+ * @since 4.3.28
+ */
+final class AttributeOverrides {
+
+    private static final String[] EMPTY_STRING_ARRAY = new String[0];
+
+    private final String[] sourceNames;
+
+    private final String[][] targetNames;
+
+
+    private AttributeOverrides(List<String> sourceNames, List<String[]> targetNames) {
+        this.sourceNames = sourceNames.toArray(EMPTY_STRING_ARRAY);
+        this.targetNames = targetNames.toArray(new String[targetNames.size()][]);
+    }
+
+
+    /**
+     * Return the number of override steps.
+     */
+    int size() {
+        return this.sourceNames.length;
+    }
+
+    /**
+     * Return the name of the source attribute of the given step.
+     */
+    String getSourceName(int index) {
+        return this.sourceNames[index];
+    }
+
+    /**
+     * Return the names of the target attributes of the given step.
+     */
+    String[] getTargetNames(int index) {
+        return this.targetNames[index];
+    }
+
+
+    /**
+     * Resolve the attribute overrides of the given annotation type for the
+     * given target annotation type.
+     *
+     * @param annotationType       the type of the annotation whose attribute
+     *                             values override
+     * @param targetAnnotationType the type of the annotation whose attributes
+     *                             are overridden
+     * @return the override steps, in attribute method order
+     * @throws AnnotationConfigurationException if invalid configuration of
+     *                                          {@code @AliasFor} is detected
+     */
+    static AttributeOverrides resolve(Class<? extends Annotation> annotationType,
+                                      Class<? extends Annotation> targetAnnotationType) {
+
+        Set<String> targetAttributeNames = new HashSet<String>();
+        for (Method attributeMethod : MyAnnotationUtils.getAttributeMethods(targetAnnotationType)) {
+            targetAttributeNames.add(attributeMethod.getName());
+        }
+        Map<String, List<String>> targetAliasMap = MyAnnotationUtils.getAttributeAliasMap(targetAnnotationType);
+
+        List<String> sourceNames = new ArrayList<String>();
+        List<String[]> targetNames = new ArrayList<String[]>();
+        Set<String> valuesAlreadyReplaced = new HashSet<String>();
+        for (Method attributeMethod : MyAnnotationUtils.getAttributeMethods(annotationType)) {
+            String attributeName = attributeMethod.getName();
+            String[] attributeOverrideNames = MyAnnotationUtils.getAttributeOverrideName(attributeMethod, targetAnnotationType);
+            if (attributeOverrideNames == null) {
+                continue;
+            }
+            for (String attributeOverrideName : attributeOverrideNames) {
+                // Explicit annotation attribute override declared via @AliasFor
+                if (!StringUtils.isEmpty(attributeOverrideName)) {
+                    if (!valuesAlreadyReplaced.add(attributeOverrideName)) {
+                        continue;
+                    }
+                    List<String> names = new ArrayList<String>();
+                    names.add(attributeOverrideName);
+                    // Ensure all aliased attributes in the target annotation are overridden
+                    List<String> aliases = targetAliasMap.get(attributeOverrideName);
+                    if (aliases != null) {
+                        for (String alias : aliases) {
+                            if (valuesAlreadyReplaced.add(alias)) {
+                                names.add(alias);
+                            }
+                        }
+                    }
+                    sourceNames.add(attributeName);
+                    targetNames.add(names.toArray(EMPTY_STRING_ARRAY));
+                }
+                // Implicit annotation attribute override based on convention
+                else if (!MyAnnotationUtils.VALUE.equals(attributeName) && targetAttributeNames.contains(attributeName)) {
+                    sourceNames.add(attributeName);
+                    targetNames.add(new String[] {attributeName});
+                }
+            }
+        }
+        return new AttributeOverrides(sourceNames, targetNames);
+    }
+
+}
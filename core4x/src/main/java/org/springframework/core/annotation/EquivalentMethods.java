@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.core.BridgeMethodResolver;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The methods that a method is searched for annotations on in addition to
+ * itself, following <em>find semantics</em>: its bridged method, and the
+ * equivalent methods declared in its superclasses and interfaces.
+ * <p>Resolving them involves bridge method resolution and a lookup by
+ * signature, with exception-driven misses, at every level of the hierarchy.
+ * Instances are computed once per method and then shared by the searches for
+ * any annotation type.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils#findAnnotation(Method, Class)
+ * @see MyAnnotatedElementUtils#findMergedAnnotation
+ * @since 4.3.28
+ */
+final class EquivalentMethods {
+
+    private static final Method[] EMPTY_METHOD_ARRAY = new Method[0];
+
+    private final Method resolvedMethod;
+
+    private final Method[] methods;
+
+    private final boolean[] interfaceMethods;
+
+
+    private EquivalentMethods(Method resolvedMethod, List<Method> methods, List<Boolean> interfaceMethods) {
+        this.resolvedMethod = resolvedMethod;
+        this.methods = methods.toArray(EMPTY_METHOD_ARRAY);
+        this.interfaceMethods = new boolean[this.methods.length];
+        for (int i = 0; i < this.interfaceMethods.length; i++) {
+            this.interfaceMethods[i] = interfaceMethods.get(i);
+        }
+    }
+
+
+    /**
+     * Return the bridged method of the method, or the method itself if it is
+     * not a bridge method.
+     */
+    Method getResolvedMethod() {
+        return this.resolvedMethod;
+    }
+
+    /**
+     * Return the number of equivalent methods in the hierarchy.
+     */
+    int size() {
+        return this.methods.length;
+    }
+
+    /**
+     * Return the equivalent method at the given position, in search order.
+     */
+    Method get(int index) {
+        return this.methods[index];
+    }
+
+    /**
+     * Return whether the equivalent method at the given position is declared
+     * in an interface.
+     */
+    boolean isInterfaceMethod(int index) {
+        return this.interfaceMethods[index];
+    }
+
+
+    /**
+     * Resolve the equivalent methods of the given method: the methods in the
+     * interfaces of its declaring class, then for each superclass the bridged
+     * method it declares, if any, followed by the methods in its interfaces.
+     * Interfaces without annotated methods are left out.
+     *
+     * @param method the method to resolve the equivalent methods of
+     * @return the equivalent methods
+     */
+    static EquivalentMethods resolve(Method method) {
+        List<Method> methods = new ArrayList<Method>();
+        List<Boolean> interfaceMethods = new ArrayList<Boolean>();
+        Class<?> clazz = method.getDeclaringClass();
+        addInterfaceMethods(method, clazz.getInterfaces(), methods, interfaceMethods);
+        while (true) {
+            clazz = clazz.getSuperclass();
+            if (clazz == null || Object.class == clazz) {
+                break;
+            }
+            try {
+                Method equivalentMethod = clazz.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                add(BridgeMethodResolver.findBridgedMethod(equivalentMethod), false, methods, interfaceMethods);
+            } catch (NoSuchMethodException ex) {
+                // No equivalent method found
+            }
+            addInterfaceMethods(method, clazz.getInterfaces(), methods, interfaceMethods);
+        }
+        return new EquivalentMethods(BridgeMethodResolver.findBridgedMethod(method), methods, interfaceMethods);
+    }
+
+    private static void addInterfaceMethods(Method method, Class<?>[] ifcs, List<Method> methods,
+                                            List<Boolean> interfaceMethods) {
+        for (Class<?> ifc : ifcs) {
+            if (MyAnnotationUtils.isInterfaceWithAnnotatedMethods(ifc)) {
+                try {
+                    add(ifc.getMethod(method.getName(), method.getParameterTypes()), true, methods, interfaceMethods);
+                } catch (NoSuchMethodException ex) {
+                    // Skip this interface - it doesn't have the method...
+                }
+            }
+        }
+    }
+
+    private static void add(Method method, boolean interfaceMethod, List<Method> methods,
+                            List<Boolean> interfaceMethods) {
+        // An interface implemented at several levels is searched once
+        if (!methods.contains(method)) {
+            methods.add(method);
+            interfaceMethods.add(interfaceMethod);
+        }
+    }
+
+}
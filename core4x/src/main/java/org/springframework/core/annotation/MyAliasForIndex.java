@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Alias tables precomputed at build time by the {@code MyAliasForProcessor}
+ * annotation processor and stored in {@value #INDEX_LOCATION}.
+ *
+ * <p>The alias declarations of an annotation type listed in the index have
+ * already been resolved and validated when it was compiled, so they are read
+ * from the index instead of being introspected. Annotation types that are not
+ * listed, or whose targets cannot be resolved, are introspected as usual.
+ *
+ * <p>The index can be ignored through the {@value #IGNORE_INDEX_PROPERTY_NAME}
+ * property, e.g. when classes are changed without recompiling the annotation
+ * types they declare.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils
+ * @since 4.3.28
+ */
+public final class MyAliasForIndex {
+
+    /**
+     * The location of the alias index files.
+     */
+    public static final String INDEX_LOCATION = "META-INF/my-alias-for.index";
+
+    /**
+     * System property that instructs to ignore the alias index:
+     * {@code "spring.annotation.alias.index.ignore"}.
+     */
+    public static final String IGNORE_INDEX_PROPERTY_NAME = "spring.annotation.alias.index.ignore";
+
+    private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX_PROPERTY_NAME);
+
+    private static final Log logger = LogFactory.getLog(MyAliasForIndex.class);
+
+    private static final MyAliasForIndex EMPTY = new MyAliasForIndex(new Properties(), null);
+
+    private static final Map<ClassLoader, MyAliasForIndex> cache = new ConcurrentReferenceHashMap<ClassLoader, MyAliasForIndex>();
+
+
+    private final Properties index;
+
+    private final ClassLoader classLoader;
+
+
+    private MyAliasForIndex(Properties index, ClassLoader classLoader) {
+        this.index = index;
+        this.classLoader = classLoader;
+    }
+
+
+    /**
+     * Return whether the given annotation type is listed in the index.
+     *
+     * @param annotationType the annotation type
+     */
+    boolean isIndexed(Class<?> annotationType) {
+        return this.index.containsKey(annotationType.getName());
+    }
+
+    /**
+     * Return the alias targets of the given attribute of an indexed annotation
+     * type.
+     *
+     * @param attribute       the annotation attribute
+     * @param multipleAliases whether {@code @MyAliasFors} declarations are
+     *                        considered, falling back to {@code @MyAliasFor};
+     *                        otherwise only {@code @MyAliasFor} is
+     * @return the targets, empty if the attribute declares no alias, or
+     * {@code null} if a target cannot be resolved
+     */
+    List<Method> getAliasTargets(Method attribute, boolean multipleAliases) {
+        String key = attribute.getDeclaringClass().getName() + "#" + attribute.getName();
+        String targets = (multipleAliases ? this.index.getProperty(key + "[]") : null);
+        if (targets == null) {
+            targets = this.index.getProperty(key);
+        }
+        if (!StringUtils.hasLength(targets)) {
+            return Collections.<Method>emptyList();
+        }
+        List<Method> result = new ArrayList<Method>();
+        for (String target : StringUtils.commaDelimitedListToStringArray(targets)) {
+            Method method = resolveTarget(target);
+            if (method == null) {
+                return null;
+            }
+            result.add(method);
+        }
+        return result;
+    }
+
+    private Method resolveTarget(String target) {
+        int separator = target.indexOf('#');
+        if (separator == -1) {
+            return null;
+        }
+        try {
+            Class<?> type = ClassUtils.forName(target.substring(0, separator), this.classLoader);
+            return type.getDeclaredMethod(target.substring(separator + 1));
+        } catch (Throwable ex) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to resolve indexed alias target " + target, ex);
+            }
+            return null;
+        }
+    }
+
+
+    /**
+     * Return the index visible to the class loader of the given annotation
+     * type.
+     *
+     * @param annotationType the annotation type
+     * @return the index, possibly empty
+     */
+    static MyAliasForIndex forAnnotationType(Class<?> annotationType) {
+        ClassLoader classLoader = annotationType.getClassLoader();
+        if (shouldIgnoreIndex || classLoader == null) {
+            return EMPTY;
+        }
+        MyAliasForIndex index = cache.get(classLoader);
+        if (index == null) {
+            index = load(classLoader);
+            cache.put(classLoader, index);
+        }
+        return index;
+    }
+
+    /**
+     * Clear the loaded indexes, so that they are read again on next use.
+     */
+    static void clearCache() {
+        cache.clear();
+    }
+
+    private static MyAliasForIndex load(ClassLoader classLoader) {
+        try {
+            Properties index = PropertiesLoaderUtils.loadAllProperties(INDEX_LOCATION, classLoader);
+            return (index.isEmpty() ? EMPTY : new MyAliasForIndex(index, classLoader));
+        } catch (IOException ex) {
+            logger.warn("Unable to load alias index from " + INDEX_LOCATION, ex);
+            return EMPTY;
+        }
+    }
+
+}
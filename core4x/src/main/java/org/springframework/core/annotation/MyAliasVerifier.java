@@ -0,0 +1,286 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Offline verifier for the alias declarations of annotation types, and the
+ * runtime side of the verified manifest it writes.
+ *
+ * <p>{@link #main(String[])} loads every annotation type compiled into a
+ * classes directory, validates its alias declarations exactly as a cold
+ * introspection would, and writes a digest of each validated type to
+ * {@value #MANIFEST_LOCATION} in that directory, so that it ends up in the jar.
+ * A misconfigured alias fails the verifier, and thus the build.
+ *
+ * <p>At runtime, alias validation is skipped for annotation types listed in
+ * the manifest of their class loader. Like the {@link MyAliasForIndex}, the
+ * manifest is trusted to be built together with the classes it lists: checking
+ * an annotation type is a single lookup, since reading the class files again
+ * would cost more than the validation it saves. The recorded digest covers the
+ * class files of the annotation type and of all annotation types meta-present
+ * on it, so that a stale manifest can be told apart offline. The manifest can
+ * be ignored through the {@value #IGNORE_MANIFEST_PROPERTY_NAME} property.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils
+ * @since 4.3.28
+ */
+public abstract class MyAliasVerifier {
+
+    /**
+     * The location of the verified manifest.
+     */
+    public static final String MANIFEST_LOCATION = "META-INF/my-alias-verified.properties";
+
+    /**
+     * System property that instructs to ignore the verified manifest and
+     * always validate aliases: {@code "spring.annotation.alias.manifest.ignore"}.
+     */
+    public static final String IGNORE_MANIFEST_PROPERTY_NAME = "spring.annotation.alias.manifest.ignore";
+
+    private static final boolean shouldIgnoreManifest = SpringProperties.getFlag(IGNORE_MANIFEST_PROPERTY_NAME);
+
+    private static final Log logger = LogFactory.getLog(MyAliasVerifier.class);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final Map<ClassLoader, Properties> manifests =
+            new ConcurrentReferenceHashMap<ClassLoader, Properties>();
+
+
+    private static final Map<Class<?>, String> classFileDigests =
+            new ConcurrentReferenceHashMap<Class<?>, String>();
+
+
+    /**
+     * Verify the annotation types compiled into the given classes directory
+     * and write the manifest into it.
+     * <p>The classes directory and its dependencies must be on the classpath.
+     *
+     * @param args the classes directory
+     * @throws IOException if the classes cannot be read or the manifest cannot
+     *                     be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: MyAliasVerifier <classes directory>");
+            System.exit(1);
+        }
+        File classesDirectory = new File(args[0]);
+        Properties manifest = verify(classesDirectory, ClassUtils.getDefaultClassLoader());
+        File file = writeManifest(manifest, classesDirectory);
+        System.out.println("Verified " + manifest.size() + " annotation types, written to " + file);
+    }
+
+    /**
+     * Validate the alias declarations of all annotation types compiled into
+     * the given classes directory.
+     *
+     * @param classesDirectory the classes directory
+     * @param classLoader      the class loader to load the annotation types with
+     * @return the manifest entries: the digest per annotation type
+     * @throws AnnotationConfigurationException if an alias is misconfigured
+     * @throws IOException                      if the classes cannot be read
+     */
+    public static Properties verify(File classesDirectory, ClassLoader classLoader) throws IOException {
+        Properties manifest = new Properties();
+        Deque<File> directories = new ArrayDeque<File>();
+        directories.add(classesDirectory);
+        String root = classesDirectory.getAbsolutePath() + File.separator;
+        while (!directories.isEmpty()) {
+            File[] files = directories.removeFirst().listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    directories.add(file);
+                } else if (file.getName().endsWith(ClassUtils.CLASS_FILE_SUFFIX)) {
+                    String path = file.getAbsolutePath().substring(root.length());
+                    String resourcePath = path.substring(0, path.length() - ClassUtils.CLASS_FILE_SUFFIX.length());
+                    String className = ClassUtils.convertResourcePathToClassName(
+                            resourcePath.replace(File.separatorChar, '/'));
+                    Class<?> type;
+                    try {
+                        type = ClassUtils.forName(className, classLoader);
+                    } catch (Throwable ex) {
+                        throw new IllegalStateException("Unable to load " + className, ex);
+                    }
+                    if (type.isAnnotation()) {
+                        verify(type.asSubclass(Annotation.class), manifest);
+                    }
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static void verify(Class<? extends Annotation> annotationType, Properties manifest) throws IOException {
+        MyAnnotationUtils.validateAliasDeclarations(annotationType);
+        String digest = digest(annotationType);
+        if (digest == null) {
+            throw new IOException("Unable to read class file of " + annotationType.getName());
+        }
+        manifest.setProperty(annotationType.getName(), digest);
+    }
+
+    /**
+     * Write the given manifest to {@value #MANIFEST_LOCATION} in the given
+     * directory.
+     *
+     * @param manifest  the manifest entries
+     * @param directory the classes directory
+     * @return the written file
+     * @throws IOException if the manifest cannot be written
+     */
+    public static File writeManifest(Properties manifest, File directory) throws IOException {
+        File file = new File(directory, MANIFEST_LOCATION);
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Unable to create " + file.getParentFile());
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            manifest.store(out, "Generated by " + MyAliasVerifier.class.getName());
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * Return whether the alias declarations of the given annotation type have
+     * been verified when it was built.
+     *
+     * @param annotationType the annotation type
+     */
+    static boolean isVerified(Class<? extends Annotation> annotationType) {
+        if (shouldIgnoreManifest) {
+            return false;
+        }
+        ClassLoader classLoader = annotationType.getClassLoader();
+        if (classLoader == null) {
+            return false;
+        }
+        Properties manifest = manifests.get(classLoader);
+        if (manifest == null) {
+            manifest = loadManifest(classLoader);
+            manifests.put(classLoader, manifest);
+        }
+        return manifest.containsKey(annotationType.getName());
+    }
+
+    /**
+     * Clear the loaded manifests and class file digests.
+     */
+    static void clearCache() {
+        manifests.clear();
+        classFileDigests.clear();
+    }
+
+    private static Properties loadManifest(ClassLoader classLoader) {
+        try {
+            return PropertiesLoaderUtils.loadAllProperties(MANIFEST_LOCATION, classLoader);
+        } catch (IOException ex) {
+            logger.warn("Unable to load verified manifest from " + MANIFEST_LOCATION, ex);
+            return new Properties();
+        }
+    }
+
+    /**
+     * Compute the digest of the class files of the given annotation type and
+     * of all annotation types meta-present on it, or {@code null} if one of
+     * them cannot be read.
+     */
+    static String digest(Class<? extends Annotation> annotationType) throws IOException {
+        Map<String, String> digests = new TreeMap<String, String>();
+        Deque<Class<? extends Annotation>> queue = new ArrayDeque<Class<? extends Annotation>>();
+        queue.add(annotationType);
+        while (!queue.isEmpty()) {
+            Class<? extends Annotation> type = queue.removeFirst();
+            if (digests.containsKey(type.getName()) || isJavaType(type)) {
+                continue;
+            }
+            String digest = digestClassFile(type);
+            if (digest == null) {
+                return null;
+            }
+            digests.put(type.getName(), digest);
+            for (Annotation metaAnnotation : type.getDeclaredAnnotations()) {
+                queue.add(metaAnnotation.annotationType());
+            }
+        }
+        StringBuilder combined = new StringBuilder();
+        for (Map.Entry<String, String> entry : digests.entrySet()) {
+            combined.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        return DigestUtils.md5DigestAsHex(combined.toString().getBytes(UTF_8));
+    }
+
+    private static boolean isJavaType(Class<?> type) {
+        return (type.getName().startsWith("java.") || type.getName().startsWith("javax."));
+    }
+
+    private static String digestClassFile(Class<?> type) throws IOException {
+        String digest = classFileDigests.get(type);
+        if (digest == null) {
+            digest = readClassFileDigest(type);
+            if (digest != null) {
+                classFileDigests.put(type, digest);
+            }
+        }
+        return digest;
+    }
+
+    private static String readClassFileDigest(Class<?> type) throws IOException {
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null) {
+            return null;
+        }
+        InputStream in = classLoader.getResourceAsStream(ClassUtils.convertClassNameToResourcePath(type.getName()) +
+                ClassUtils.CLASS_FILE_SUFFIX);
+        if (in == null) {
+            return null;
+        }
+        try {
+            return DigestUtils.md5DigestAsHex(in);
+        } finally {
+            in.close();
+        }
+    }
+
+}
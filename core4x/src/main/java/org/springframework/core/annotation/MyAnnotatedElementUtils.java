@@ -21,18 +21,19 @@ import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.util.StringUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * General utility methods for finding annotations, meta-annotations, and
@@ -105,6 +106,11 @@ public class MyAnnotatedElementUtils {
 
     private static final Annotation[] EMPTY_ANNOTATION_ARRAY = new Annotation[0];
 
+    /**
+     * Marker for cached merges that found no annotation.
+     */
+    private static final AnnotationAttributes NO_ATTRIBUTES = new AnnotationAttributes();
+
     private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
     /**
@@ -189,14 +195,7 @@ public class MyAnnotatedElementUtils {
         }
 
         try {
-            final Set<String> types = new LinkedHashSet<String>();
-            searchWithGetSemantics(composed.annotationType(), null, null, null, new SimpleAnnotationProcessor<Object>(true) {
-                @Override
-                public Object process(AnnotatedElement annotatedElement, Annotation annotation, int metaDepth) {
-                    types.add(annotation.annotationType().getName());
-                    return CONTINUE;
-                }
-            }, new HashSet<AnnotatedElement>(), 1);
+            Set<String> types = MyAnnotationUtils.getMetaAnnotationTypeNames(composed.annotationType());
             return (!types.isEmpty() ? types : null);
         } catch (Throwable ex) {
             MyAnnotationUtils.rethrowAnnotationConfigurationException(ex);
@@ -204,6 +203,47 @@ public class MyAnnotatedElementUtils {
         }
     }
 
+    /**
+     * Collect the names of all meta-annotation types present on the supplied
+     * annotation type, for caching by
+     * {@link MyAnnotationUtils#getMetaAnnotationTypeNames}.
+     *
+     * @param annotationType the annotation type
+     * @return an immutable set of names, empty if there are none
+     * @since 4.3.28
+     */
+    static Set<String> introspectMetaAnnotationTypes(Class<? extends Annotation> annotationType) {
+        final Set<String> types = new LinkedHashSet<String>();
+        searchWithGetSemantics(annotationType, null, null, null, new SimpleAnnotationProcessor<Object>(true) {
+            @Override
+            public Object process(AnnotatedElement annotatedElement, Annotation annotation, int metaDepth) {
+                types.add(annotation.annotationType().getName());
+                return CONTINUE;
+            }
+        }, new VisitedElements(), 1);
+        return Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Record every annotation type present or meta-present on the supplied
+     * element, for caching by {@link MyAnnotationUtils#getAnnotationPresence}.
+     *
+     * @param element the annotated element
+     * @return the annotation presence of the element
+     * @since 4.3.28
+     */
+    static AnnotationPresence introspectAnnotationPresence(AnnotatedElement element) {
+        final AnnotationPresence presence = new AnnotationPresence();
+        searchWithGetSemantics(element, null, null, null, new SimpleAnnotationProcessor<Object>(true) {
+            @Override
+            public Object process(AnnotatedElement annotatedElement, Annotation annotation, int metaDepth) {
+                presence.add(annotation.annotationType(), metaDepth);
+                return CONTINUE;
+            }
+        });
+        return presence;
+    }
+
     /**
      * Determine if the supplied {@link AnnotatedElement} is annotated with
      * a <em>composed annotation</em> that is meta-annotated with an
@@ -221,7 +261,7 @@ public class MyAnnotatedElementUtils {
         Assert.notNull(element, "AnnotatedElement must not be null");
         Assert.notNull(annotationType, "'annotationType' must not be null");
 
-        return hasMetaAnnotationTypes(element, annotationType, null);
+        return MyAnnotationUtils.getAnnotationPresence(element).isMetaPresent(annotationType);
     }
 
     /**
@@ -241,19 +281,7 @@ public class MyAnnotatedElementUtils {
         Assert.notNull(element, "AnnotatedElement must not be null");
         Assert.hasLength(annotationName, "'annotationName' must not be null or empty");
 
-        return hasMetaAnnotationTypes(element, null, annotationName);
-    }
-
-    private static boolean hasMetaAnnotationTypes(AnnotatedElement element, Class<? extends Annotation> annotationType,
-                                                  String annotationName) {
-
-        return Boolean.TRUE.equals(
-                searchWithGetSemantics(element, annotationType, annotationName, new SimpleAnnotationProcessor<Boolean>() {
-                    @Override
-                    public Boolean process(AnnotatedElement annotatedElement, Annotation annotation, int metaDepth) {
-                        return (metaDepth > 0 ? Boolean.TRUE : CONTINUE);
-                    }
-                }));
+        return MyAnnotationUtils.getAnnotationPresence(element).isMetaPresent(annotationName);
     }
 
     /**
@@ -279,7 +307,7 @@ public class MyAnnotatedElementUtils {
         if (element.isAnnotationPresent(annotationType)) {
             return true;
         }
-        return Boolean.TRUE.equals(searchWithGetSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+        return MyAnnotationUtils.getAnnotationPresence(element).isPresent(annotationType);
     }
 
     /**
@@ -299,7 +327,7 @@ public class MyAnnotatedElementUtils {
         Assert.notNull(element, "AnnotatedElement must not be null");
         Assert.hasLength(annotationName, "'annotationName' must not be null or empty");
 
-        return Boolean.TRUE.equals(searchWithGetSemantics(element, null, annotationName, alwaysTrueAnnotationProcessor));
+        return MyAnnotationUtils.getAnnotationPresence(element).isPresent(annotationName);
     }
 
     /**
@@ -348,6 +376,52 @@ public class MyAnnotatedElementUtils {
         return attributes;
     }
 
+    /**
+     * Get the merged attributes of the first annotation of the specified
+     * {@code annotationType} as {@link #getMergedAnnotationAttributes(AnnotatedElement, Class)}
+     * does, but read-only.
+     * <p>The attributes of classes and members are merged once and the same
+     * instance is returned on subsequent calls. Modifying the attributes
+     * throws an {@link UnsupportedOperationException}; use
+     * {@link AnnotationAttributes#AnnotationAttributes(AnnotationAttributes)}
+     * to obtain a modifiable copy.
+     *
+     * @param element        the annotated element
+     * @param annotationType the annotation type to find
+     * @return the read-only merged {@code AnnotationAttributes}, or {@code null} if not found
+     * @see #getReadOnlyMergedAnnotationAttributes(AnnotatedElement, Class, boolean, boolean)
+     * @since 4.3.28
+     */
+    public static AnnotationAttributes getReadOnlyMergedAnnotationAttributes(
+            AnnotatedElement element, Class<? extends Annotation> annotationType) {
+
+        return getReadOnlyMergedAnnotationAttributes(element, annotationType, false, false);
+    }
+
+    /**
+     * Get the merged attributes of the first annotation of the specified
+     * {@code annotationType}, following <em>get semantics</em>, read-only.
+     * <p>The attributes of classes and members are merged once per
+     * combination of flags and the same instance is returned on subsequent
+     * calls; see {@link #getReadOnlyMergedAnnotationAttributes(AnnotatedElement, Class)}.
+     *
+     * @param element                the annotated element
+     * @param annotationType         the annotation type to find
+     * @param classValuesAsString    whether to convert Class references into
+     *                               Strings or to preserve them as Class references
+     * @param nestedAnnotationsAsMap whether to convert nested Annotation instances into
+     *                               {@code AnnotationAttributes} maps or to preserve them as Annotation instances
+     * @return the read-only merged {@code AnnotationAttributes}, or {@code null} if not found
+     * @since 4.3.28
+     */
+    public static AnnotationAttributes getReadOnlyMergedAnnotationAttributes(AnnotatedElement element,
+                                                                             Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+        Assert.notNull(annotationType, "'annotationType' must not be null");
+        return getReadOnlyMergedAnnotationAttributes(element, annotationType, false,
+                classValuesAsString, nestedAnnotationsAsMap);
+    }
+
     /**
      * Get the first annotation of the specified {@code annotationName} within
      * the annotation hierarchy <em>above</em> the supplied {@code element} and
@@ -441,7 +515,7 @@ public class MyAnnotatedElementUtils {
         }
 
         // Exhaustive retrieval of merged annotation attributes...
-        AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
+        AnnotationAttributes attributes = getReadOnlyMergedAnnotationAttributes(element, annotationType, false, false, false);
         return MyAnnotationUtils.synthesizeAnnotation(attributes, annotationType, element);
     }
 
@@ -673,6 +747,36 @@ public class MyAnnotatedElementUtils {
         return attributes;
     }
 
+    /**
+     * Find the merged attributes of the first annotation of the specified
+     * {@code annotationType} as
+     * {@link #findMergedAnnotationAttributes(AnnotatedElement, Class, boolean, boolean)}
+     * does, but read-only.
+     * <p>The attributes of classes and members are merged once per
+     * combination of flags and the same instance is returned on subsequent
+     * calls. Modifying the attributes throws an
+     * {@link UnsupportedOperationException}; use
+     * {@link AnnotationAttributes#AnnotationAttributes(AnnotationAttributes)}
+     * to obtain a modifiable copy.
+     *
+     * @param element                the annotated element
+     * @param annotationType         the annotation type to find
+     * @param classValuesAsString    whether to convert Class references into
+     *                               Strings or to preserve them as Class references
+     * @param nestedAnnotationsAsMap whether to convert nested Annotation instances into
+     *                               {@code AnnotationAttributes} maps or to preserve them as Annotation instances
+     * @return the read-only merged {@code AnnotationAttributes}, or {@code null} if not found
+     * @see #findMergedAnnotation(AnnotatedElement, Class)
+     * @since 4.3.28
+     */
+    public static AnnotationAttributes findReadOnlyMergedAnnotationAttributes(AnnotatedElement element,
+                                                                              Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+        Assert.notNull(annotationType, "'annotationType' must not be null");
+        return getReadOnlyMergedAnnotationAttributes(element, annotationType, true,
+                classValuesAsString, nestedAnnotationsAsMap);
+    }
+
     /**
      * Find the first annotation of the specified {@code annotationName} within
      * the annotation hierarchy <em>above</em> the supplied {@code element} and
@@ -743,7 +847,7 @@ public class MyAnnotatedElementUtils {
         }
 
         // Exhaustive retrieval of merged annotation attributes...
-        AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
+        AnnotationAttributes attributes = getReadOnlyMergedAnnotationAttributes(element, annotationType, true, false, false);
         return MyAnnotationUtils.synthesizeAnnotation(attributes, annotationType, element);
     }
 
@@ -883,6 +987,54 @@ public class MyAnnotatedElementUtils {
         return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
     }
 
+    /**
+     * Merge the attributes of the first annotation of the specified
+     * {@code annotationType} into read-only {@code AnnotationAttributes},
+     * once per variant for classes and members.
+     *
+     * @param element                the annotated element
+     * @param annotationType         the annotation type to find
+     * @param findSemantics          whether to follow <em>find semantics</em>
+     *                               rather than <em>get semantics</em>
+     * @param classValuesAsString    whether to convert Class references into Strings
+     * @param nestedAnnotationsAsMap whether to convert nested Annotation instances into maps
+     * @return the read-only merged {@code AnnotationAttributes}, or {@code null} if not found
+     * @since 4.3.28
+     */
+    private static AnnotationAttributes getReadOnlyMergedAnnotationAttributes(AnnotatedElement element,
+                                                                              Class<? extends Annotation> annotationType, boolean findSemantics,
+                                                                              boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+        if (!(element instanceof Class || element instanceof Member)) {
+            return ReadOnlyAnnotationAttributes.of(mergeAnnotationAttributes(element, annotationType, findSemantics,
+                    classValuesAsString, nestedAnnotationsAsMap));
+        }
+        AtomicReferenceArray<AnnotationAttributes> variants =
+                MyAnnotationUtils.getMergedAttributesVariants(element, annotationType);
+        int variant = (findSemantics ? 4 : 0) + (classValuesAsString ? 2 : 0) + (nestedAnnotationsAsMap ? 1 : 0);
+        AnnotationAttributes attributes = variants.get(variant);
+        if (attributes == null) {
+            attributes = ReadOnlyAnnotationAttributes.of(mergeAnnotationAttributes(element, annotationType, findSemantics,
+                    classValuesAsString, nestedAnnotationsAsMap));
+            // Concurrent merges produce equal attributes, any of them may win
+            variants.set(variant, attributes != null ? attributes : NO_ATTRIBUTES);
+        }
+        return (attributes != NO_ATTRIBUTES ? attributes : null);
+    }
+
+    private static AnnotationAttributes mergeAnnotationAttributes(AnnotatedElement element,
+                                                                  Class<? extends Annotation> annotationType, boolean findSemantics,
+                                                                  boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+        MergedAnnotationAttributesProcessor processor =
+                new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap);
+        AnnotationAttributes attributes = (findSemantics ?
+                searchWithFindSemantics(element, annotationType, null, processor) :
+                searchWithGetSemantics(element, annotationType, null, processor));
+        MyAnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
+        return attributes;
+    }
+
     /**
      * Search for annotations of the specified {@code annotationName} or
      * {@code annotationType} on the specified {@code element}, following
@@ -920,12 +1072,15 @@ public class MyAnnotatedElementUtils {
                                                 Class<? extends Annotation> annotationType, String annotationName,
                                                 Class<? extends Annotation> containerType, Processor<T> processor) {
 
+        VisitedElements visited = VisitedElements.acquire();
         try {
             return searchWithGetSemantics(element, annotationType, annotationName,
-                    containerType, processor, new HashSet<AnnotatedElement>(), 0);
+                    containerType, processor, visited, 0);
         } catch (Throwable ex) {
             MyAnnotationUtils.rethrowAnnotationConfigurationException(ex);
             throw new IllegalStateException("Failed to introspect annotations on " + element, ex);
+        } finally {
+            VisitedElements.release(visited);
         }
     }
 
@@ -950,14 +1105,14 @@ public class MyAnnotatedElementUtils {
     private static <T> T searchWithGetSemantics(AnnotatedElement element,
                                                 Class<? extends Annotation> annotationType, String annotationName,
                                                 Class<? extends Annotation> containerType, Processor<T> processor,
-                                                Set<AnnotatedElement> visited, int metaDepth) {
+                                                VisitedElements visited, int metaDepth) {
 
         Assert.notNull(element, "AnnotatedElement must not be null");
 
         if (visited.add(element)) {
             try {
                 // Start searching within locally declared annotations
-                List<Annotation> declaredAnnotations = Arrays.asList(element.getDeclaredAnnotations());
+                List<Annotation> declaredAnnotations = Arrays.asList(MyAnnotationUtils.getDeclaredAnnotations(element));
                 T result = searchWithGetSemanticsInAnnotations(element, declaredAnnotations,
                         annotationType, annotationName, containerType, processor, visited, metaDepth);
                 if (result != null) {
@@ -1013,7 +1168,7 @@ public class MyAnnotatedElementUtils {
     private static <T> T searchWithGetSemanticsInAnnotations(AnnotatedElement element,
                                                              List<Annotation> annotations, Class<? extends Annotation> annotationType,
                                                              String annotationName, Class<? extends Annotation> containerType,
-                                                             Processor<T> processor, Set<AnnotatedElement> visited, int metaDepth) {
+                                                             Processor<T> processor, VisitedElements visited, int metaDepth) {
 
         // Search in annotations
         for (Annotation annotation : annotations) {
@@ -1109,12 +1264,15 @@ public class MyAnnotatedElementUtils {
                     "Searches for repeatable annotations must supply an aggregating Processor");
         }
 
+        VisitedElements visited = VisitedElements.acquire();
         try {
             return searchWithFindSemantics(element, annotationType, annotationName,
-                    containerType, processor, new HashSet<AnnotatedElement>(), 0);
+                    containerType, processor, visited, 0);
         } catch (Throwable ex) {
             MyAnnotationUtils.rethrowAnnotationConfigurationException(ex);
             throw new IllegalStateException("Failed to introspect annotations on " + element, ex);
+        } finally {
+            VisitedElements.release(visited);
         }
     }
 
@@ -1139,14 +1297,14 @@ public class MyAnnotatedElementUtils {
      */
     private static <T> T searchWithFindSemantics(AnnotatedElement element, Class<? extends Annotation> annotationType,
                                                  String annotationName, Class<? extends Annotation> containerType, Processor<T> processor,
-                                                 Set<AnnotatedElement> visited, int metaDepth) {
+                                                 VisitedElements visited, int metaDepth) {
 
         Assert.notNull(element, "AnnotatedElement must not be null");
 
         if (visited.add(element)) {
             try {
                 // Locally declared annotations (ignoring @Inherited)
-                Annotation[] annotations = element.getDeclaredAnnotations();
+                Annotation[] annotations = MyAnnotationUtils.getDeclaredAnnotations(element);
                 if (annotations.length > 0) {
                     List<T> aggregatedResults = (processor.aggregates() ? new ArrayList<T>() : null);
 
@@ -1208,7 +1366,8 @@ public class MyAnnotatedElementUtils {
                     T result;
 
                     // Search on possibly bridged method
-                    Method resolvedMethod = BridgeMethodResolver.findBridgedMethod(method);
+                    EquivalentMethods equivalentMethods = MyAnnotationUtils.getEquivalentMethods(method);
+                    Method resolvedMethod = equivalentMethods.getResolvedMethod();
                     if (resolvedMethod != method) {
                         result = searchWithFindSemantics(resolvedMethod, annotationType, annotationName,
                                 containerType, processor, visited, metaDepth);
@@ -1217,37 +1376,10 @@ public class MyAnnotatedElementUtils {
                         }
                     }
 
-                    // Search on methods in interfaces declared locally
-                    Class<?>[] ifcs = method.getDeclaringClass().getInterfaces();
-                    if (ifcs.length > 0) {
-                        result = searchOnInterfaces(method, annotationType, annotationName,
-                                containerType, processor, visited, metaDepth, ifcs);
-                        if (result != null) {
-                            return result;
-                        }
-                    }
-
-                    // Search on methods in class hierarchy and interface hierarchy
-                    Class<?> clazz = method.getDeclaringClass();
-                    while (true) {
-                        clazz = clazz.getSuperclass();
-                        if (clazz == null || Object.class == clazz) {
-                            break;
-                        }
-                        try {
-                            Method equivalentMethod = clazz.getDeclaredMethod(method.getName(), method.getParameterTypes());
-                            Method resolvedEquivalentMethod = BridgeMethodResolver.findBridgedMethod(equivalentMethod);
-                            result = searchWithFindSemantics(resolvedEquivalentMethod, annotationType, annotationName,
-                                    containerType, processor, visited, metaDepth);
-                            if (result != null) {
-                                return result;
-                            }
-                        } catch (NoSuchMethodException ex) {
-                            // No equivalent method found
-                        }
-                        // Search on interfaces declared on superclass
-                        result = searchOnInterfaces(method, annotationType, annotationName,
-                                containerType, processor, visited, metaDepth, clazz.getInterfaces());
+                    // Search on methods in interfaces and in the class hierarchy
+                    for (int i = 0; i < equivalentMethods.size(); i++) {
+                        result = searchWithFindSemantics(equivalentMethods.get(i), annotationType, annotationName,
+                                containerType, processor, visited, metaDepth);
                         if (result != null) {
                             return result;
                         }
@@ -1281,28 +1413,6 @@ public class MyAnnotatedElementUtils {
         return null;
     }
 
-    private static <T> T searchOnInterfaces(Method method, Class<? extends Annotation> annotationType,
-                                            String annotationName, Class<? extends Annotation> containerType, Processor<T> processor,
-                                            Set<AnnotatedElement> visited, int metaDepth, Class<?>[] ifcs) {
-
-        for (Class<?> iface : ifcs) {
-            if (MyAnnotationUtils.isInterfaceWithAnnotatedMethods(iface)) {
-                try {
-                    Method equivalentMethod = iface.getMethod(method.getName(), method.getParameterTypes());
-                    T result = searchWithFindSemantics(equivalentMethod, annotationType, annotationName, containerType,
-                            processor, visited, metaDepth);
-                    if (result != null) {
-                        return result;
-                    }
-                } catch (NoSuchMethodException ex) {
-                    // Skip this interface - it doesn't have the method...
-                }
-            }
-        }
-
-        return null;
-    }
-
     /**
      * Get the array of raw (unsynthesized) annotations from the {@code value}
      * attribute of the supplied repeatable annotation {@code container}.
@@ -1608,67 +1718,20 @@ public class MyAnnotatedElementUtils {
 
         @Override
         public void postProcess(AnnotatedElement element, Annotation annotation, AnnotationAttributes attributes) {
+            AttributeOverrides overrides =
+                    MyAnnotationUtils.getAttributeOverrides(annotation.annotationType(), attributes.annotationType());
+            if (overrides.size() == 0) {
+                return;
+            }
             annotation = MyAnnotationUtils.synthesizeAnnotation(annotation, element);
-            Class<? extends Annotation> targetAnnotationType = attributes.annotationType();
-
-            // Track which attribute values have already been replaced so that we can short
-            // circuit the search algorithms.
-            Set<String> valuesAlreadyReplaced = new HashSet<String>();
-
-            for (Method attributeMethod : MyAnnotationUtils.getAttributeMethods(annotation.annotationType())) {
-                String attributeName = attributeMethod.getName();
-                String[] attributeOverrideNames = MyAnnotationUtils.getAttributeOverrideName(attributeMethod, targetAnnotationType);
-                if (null == attributeOverrideNames) {
-                    continue;
+            for (int i = 0; i < overrides.size(); i++) {
+                Object adaptedValue = getAdaptedValue(element, annotation, overrides.getSourceName(i));
+                for (String targetAttributeName : overrides.getTargetNames(i)) {
+                    attributes.put(targetAttributeName, adaptedValue);
                 }
-                for (String attributeOverrideName : attributeOverrideNames) {
-                    // Explicit annotation attribute override declared via @AliasFor
-                    if (!StringUtils.isEmpty(attributeOverrideName)) {
-                        if (valuesAlreadyReplaced.contains(attributeOverrideName)) {
-                            continue;
-                        }
-
-                        List<String> targetAttributeNames = new ArrayList<String>();
-                        targetAttributeNames.add(attributeOverrideName);
-                        valuesAlreadyReplaced.add(attributeOverrideName);
-
-                        // Ensure all aliased attributes in the target annotation are overridden. (SPR-14069)
-                        List<String> aliases = MyAnnotationUtils.getAttributeAliasMap(targetAnnotationType).get(attributeOverrideName);
-                        if (aliases != null) {
-                            for (String alias : aliases) {
-                                if (!valuesAlreadyReplaced.contains(alias)) {
-                                    targetAttributeNames.add(alias);
-                                    valuesAlreadyReplaced.add(alias);
-                                }
-                            }
-                        }
-
-                        overrideAttributes(element, annotation, attributes, attributeName, targetAttributeNames);
-                    }
-                    // Implicit annotation attribute override based on convention
-                    else if (!MyAnnotationUtils.VALUE.equals(attributeName) && attributes.containsKey(attributeName)) {
-                        overrideAttribute(element, annotation, attributes, attributeName, attributeName);
-                    }
-                }
-            }
-        }
-
-        private void overrideAttributes(AnnotatedElement element, Annotation annotation,
-                                        AnnotationAttributes attributes, String sourceAttributeName, List<String> targetAttributeNames) {
-
-            Object adaptedValue = getAdaptedValue(element, annotation, sourceAttributeName);
-
-            for (String targetAttributeName : targetAttributeNames) {
-                attributes.put(targetAttributeName, adaptedValue);
             }
         }
 
-        private void overrideAttribute(AnnotatedElement element, Annotation annotation, AnnotationAttributes attributes,
-                                       String sourceAttributeName, String targetAttributeName) {
-
-            attributes.put(targetAttributeName, getAdaptedValue(element, annotation, sourceAttributeName));
-        }
-
         private Object getAdaptedValue(AnnotatedElement element, Annotation annotation, String sourceAttributeName) {
             Object value = MyAnnotationUtils.getValue(annotation, sourceAttributeName);
             return MyAnnotationUtils.adaptValue(element, value, this.classValuesAsString, this.nestedAnnotationsAsMap);
@@ -19,6 +19,7 @@ package org.springframework.core.annotation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.SpringProperties;
 import org.springframework.util.Assert;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
@@ -30,11 +31,15 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -43,6 +48,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * General utility methods for working with annotations, handling meta-annotations,
@@ -115,28 +125,278 @@ public abstract class MyAnnotationUtils {
      */
     public static final String VALUE = "value";
 
+    /**
+     * System property that instructs the {@code synthesizeAnnotation} methods to
+     * generate a concrete class per annotation type instead of creating a JDK
+     * dynamic proxy: {@code "spring.annotation.synthesize.generated"}.
+     * <p>The default is "false". Can also be switched at runtime through
+     * {@link #setGeneratedSynthesis(boolean)}.
+     *
+     * @see SynthesizedAnnotationClassGenerator
+     */
+    public static final String GENERATED_SYNTHESIS_PROPERTY_NAME = "spring.annotation.synthesize.generated";
+
+    /**
+     * System property that caps the size of every internal metadata cache:
+     * {@code "spring.annotation.cache.limit"}. A single cache can be capped
+     * separately by appending its name, e.g.
+     * {@code "spring.annotation.cache.limit.findAnnotationCache"}.
+     * <p>By default the caches are unbounded: per-type metadata is attached to
+     * the annotation type itself, other entries are soft-referenced. A
+     * positive limit switches to a {@link SegmentedLruAnnotationCache} of
+     * that size.
+     *
+     * @see #setCacheLimit(String, int)
+     * @since 4.3.28
+     */
+    public static final String CACHE_LIMIT_PROPERTY_NAME = "spring.annotation.cache.limit";
+
+    /**
+     * Name of the cache for {@code findAnnotation} results on classes and methods.
+     *
+     * @since 4.3.28
+     */
+    public static final String FIND_ANNOTATION_CACHE = "findAnnotationCache";
+
+    /**
+     * Name of the cache for {@code isAnnotationMetaPresent} results.
+     *
+     * @since 4.3.28
+     */
+    public static final String META_PRESENT_CACHE = "metaPresentCache";
+
+    /**
+     * Name of the cache recording which interfaces declare annotated methods.
+     *
+     * @since 4.3.28
+     */
+    public static final String ANNOTATED_INTERFACE_CACHE = "annotatedInterfaceCache";
+
+    /**
+     * Name of the cache recording which annotation types are synthesizable.
+     *
+     * @since 4.3.28
+     */
+    public static final String SYNTHESIZABLE_CACHE = "synthesizableCache";
+
+    /**
+     * Name of the cache for the attribute alias map of each annotation type.
+     *
+     * @since 4.3.28
+     */
+    public static final String ATTRIBUTE_ALIASES_CACHE = "attributeAliasesCache";
+
+    /**
+     * Name of the cache for the attribute methods of each annotation type.
+     *
+     * @since 4.3.28
+     */
+    public static final String ATTRIBUTE_METHODS_CACHE = "attributeMethodsCache";
+
+    /**
+     * Name of the cache for the alias descriptor of each annotation attribute.
+     *
+     * @since 4.3.28
+     */
+    public static final String ALIAS_DESCRIPTOR_CACHE = "aliasDescriptorCache";
+
+    /**
+     * Name of the cache for the annotation types present and meta-present on
+     * classes and members.
+     *
+     * @since 4.3.28
+     */
+    public static final String ANNOTATION_PRESENCE_CACHE = "annotationPresenceCache";
+
+    /**
+     * Name of the cache for the names of the meta-annotation types of each
+     * annotation type.
+     *
+     * @since 4.3.28
+     */
+    public static final String META_ANNOTATION_TYPES_CACHE = "metaAnnotationTypesCache";
+
+    /**
+     * Name of the cache for the annotations declared on classes and members,
+     * which the searches iterate instead of copying them on every visit.
+     *
+     * @since 4.3.28
+     */
+    public static final String DECLARED_ANNOTATIONS_CACHE = "declaredAnnotationsCache";
+
+    /**
+     * Name of the cache for the equivalent methods in the hierarchy of each
+     * method, searched by find semantics.
+     *
+     * @since 4.3.28
+     */
+    public static final String EQUIVALENT_METHODS_CACHE = "equivalentMethodsCache";
+
+    /**
+     * Name of the cache for the attribute overrides of each pair of an
+     * annotation type and a target annotation type meta-present on it.
+     *
+     * @since 4.3.28
+     */
+    public static final String ATTRIBUTE_OVERRIDES_CACHE = "attributeOverridesCache";
+
+    /**
+     * Name of the cache for the read-only merged annotation attributes of
+     * each pair of a class or member and an annotation type.
+     *
+     * @since 4.3.28
+     */
+    public static final String MERGED_ATTRIBUTES_CACHE = "mergedAttributesCache";
+
     private static final String REPEATABLE_CLASS_NAME = "java.lang.annotation.Repeatable";
 
-    private static final Map<AnnotationCacheKey, Annotation> findAnnotationCache =
-            new ConcurrentReferenceHashMap<AnnotationCacheKey, Annotation>(256);
+    /**
+     * The number of cached variants of merged attributes per element and
+     * annotation type: get or find semantics, combined with the two flags
+     * for adapting attribute values.
+     */
+    static final int MERGED_ATTRIBUTES_VARIANTS = 8;
+
+    private static final Map<String, ConfigurableAnnotationCache<?, ?>> caches =
+            new LinkedHashMap<String, ConfigurableAnnotationCache<?, ?>>();
+
+    private static final ConfigurableAnnotationCache<AnnotationCacheKey, Annotation> findAnnotationCache =
+            registerCache(FIND_ANNOTATION_CACHE);
+
+    private static final ConfigurableAnnotationCache<AnnotationCacheKey, Boolean> metaPresentCache =
+            registerCache(META_PRESENT_CACHE);
+
+    private static final ConfigurableAnnotationCache<Class<?>, Boolean> annotatedInterfaceCache =
+            registerCache(ANNOTATED_INTERFACE_CACHE);
+
+    private static final ConfigurableAnnotationCache<Class<? extends Annotation>, Boolean> synthesizableCache =
+            registerCache(SYNTHESIZABLE_CACHE);
+
+    private static final ConfigurableAnnotationCache<Class<? extends Annotation>, Map<String, List<String>>> attributeAliasesCache =
+            registerCache(ATTRIBUTE_ALIASES_CACHE);
+
+    private static final ConfigurableAnnotationCache<Class<? extends Annotation>, List<Method>> attributeMethodsCache =
+            registerCache(ATTRIBUTE_METHODS_CACHE);
+
+    private static final ConfigurableAnnotationCache<Method, AliasDescriptor> aliasDescriptorCache =
+            registerCache(ALIAS_DESCRIPTOR_CACHE);
 
-    private static final Map<AnnotationCacheKey, Boolean> metaPresentCache =
-            new ConcurrentReferenceHashMap<AnnotationCacheKey, Boolean>(256);
+    private static final ConfigurableAnnotationCache<AnnotatedElement, AnnotationPresence> annotationPresenceCache =
+            registerCache(ANNOTATION_PRESENCE_CACHE);
 
-    private static final Map<Class<?>, Boolean> annotatedInterfaceCache =
-            new ConcurrentReferenceHashMap<Class<?>, Boolean>(256);
+    private static final ConfigurableAnnotationCache<Class<? extends Annotation>, Set<String>> metaAnnotationTypesCache =
+            registerCache(META_ANNOTATION_TYPES_CACHE);
 
-    private static final Map<Class<? extends Annotation>, Boolean> synthesizableCache =
-            new ConcurrentReferenceHashMap<Class<? extends Annotation>, Boolean>(256);
+    private static final ConfigurableAnnotationCache<AnnotatedElement, Annotation[]> declaredAnnotationsCache =
+            registerCache(DECLARED_ANNOTATIONS_CACHE);
 
-    private static final Map<Class<? extends Annotation>, Map<String, List<String>>> attributeAliasesCache =
-            new ConcurrentReferenceHashMap<Class<? extends Annotation>, Map<String, List<String>>>(256);
+    private static final ConfigurableAnnotationCache<Method, EquivalentMethods> equivalentMethodsCache =
+            registerCache(EQUIVALENT_METHODS_CACHE);
 
-    private static final Map<Class<? extends Annotation>, List<Method>> attributeMethodsCache =
-            new ConcurrentReferenceHashMap<Class<? extends Annotation>, List<Method>>(256);
+    private static final ConfigurableAnnotationCache<AnnotationCacheKey, AttributeOverrides> attributeOverridesCache =
+            registerCache(ATTRIBUTE_OVERRIDES_CACHE);
 
-    private static final Map<Method, AliasDescriptor> aliasDescriptorCache =
-            new ConcurrentReferenceHashMap<Method, AliasDescriptor>(256);
+    private static final ConfigurableAnnotationCache<AnnotationCacheKey, AtomicReferenceArray<AnnotationAttributes>>
+            mergedAttributesCache = registerCache(MERGED_ATTRIBUTES_CACHE);
+
+    private static final CacheLoader<AnnotationCacheKey, Boolean> metaPresentLoader =
+            new CacheLoader<AnnotationCacheKey, Boolean>() {
+                @Override
+                public Boolean load(AnnotationCacheKey key) {
+                    return (findAnnotation((Class<?>) key.element, key.annotationType, false) != null);
+                }
+            };
+
+    private static final CacheLoader<Class<?>, Boolean> annotatedInterfaceLoader =
+            new CacheLoader<Class<?>, Boolean>() {
+                @Override
+                public Boolean load(Class<?> ifc) {
+                    return hasAnnotatedMethods(ifc);
+                }
+            };
+
+    private static final CacheLoader<Class<? extends Annotation>, Boolean> synthesizableLoader =
+            new CacheLoader<Class<? extends Annotation>, Boolean>() {
+                @Override
+                public Boolean load(Class<? extends Annotation> annotationType) {
+                    return hasAliasesOrSynthesizableNestedTypes(annotationType);
+                }
+            };
+
+    private static final CacheLoader<Class<? extends Annotation>, Map<String, List<String>>> attributeAliasesLoader =
+            new CacheLoader<Class<? extends Annotation>, Map<String, List<String>>>() {
+                @Override
+                public Map<String, List<String>> load(Class<? extends Annotation> annotationType) {
+                    return AliasDescriptor.computeAttributeAliasMap(annotationType);
+                }
+            };
+
+    private static final CacheLoader<Class<? extends Annotation>, List<Method>> attributeMethodsLoader =
+            new CacheLoader<Class<? extends Annotation>, List<Method>>() {
+                @Override
+                public List<Method> load(Class<? extends Annotation> annotationType) {
+                    return findAttributeMethods(annotationType);
+                }
+            };
+
+    private static final CacheLoader<AnnotatedElement, AnnotationPresence> annotationPresenceLoader =
+            new CacheLoader<AnnotatedElement, AnnotationPresence>() {
+                @Override
+                public AnnotationPresence load(AnnotatedElement element) {
+                    return MyAnnotatedElementUtils.introspectAnnotationPresence(element);
+                }
+            };
+
+    private static final CacheLoader<AnnotatedElement, Annotation[]> declaredAnnotationsLoader =
+            new CacheLoader<AnnotatedElement, Annotation[]>() {
+                @Override
+                public Annotation[] load(AnnotatedElement element) {
+                    return element.getDeclaredAnnotations();
+                }
+            };
+
+    private static final CacheLoader<AnnotationCacheKey, AttributeOverrides> attributeOverridesLoader =
+            new CacheLoader<AnnotationCacheKey, AttributeOverrides>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public AttributeOverrides load(AnnotationCacheKey key) {
+                    return AttributeOverrides.resolve((Class<? extends Annotation>) key.element, key.annotationType);
+                }
+            };
+
+    private static final CacheLoader<AnnotationCacheKey, AtomicReferenceArray<AnnotationAttributes>> mergedAttributesLoader =
+            new CacheLoader<AnnotationCacheKey, AtomicReferenceArray<AnnotationAttributes>>() {
+                @Override
+                public AtomicReferenceArray<AnnotationAttributes> load(AnnotationCacheKey key) {
+                    return new AtomicReferenceArray<AnnotationAttributes>(MERGED_ATTRIBUTES_VARIANTS);
+                }
+            };
+
+    private static final CacheLoader<Method, EquivalentMethods> equivalentMethodsLoader =
+            new CacheLoader<Method, EquivalentMethods>() {
+                @Override
+                public EquivalentMethods load(Method method) {
+                    return EquivalentMethods.resolve(method);
+                }
+            };
+
+    private static final CacheLoader<Class<? extends Annotation>, Set<String>> metaAnnotationTypesLoader =
+            new CacheLoader<Class<? extends Annotation>, Set<String>>() {
+                @Override
+                public Set<String> load(Class<? extends Annotation> annotationType) {
+                    return MyAnnotatedElementUtils.introspectMetaAnnotationTypes(annotationType);
+                }
+            };
+
+    private static final CacheLoader<Method, AliasDescriptor> aliasDescriptorLoader =
+            new CacheLoader<Method, AliasDescriptor>() {
+                @Override
+                public AliasDescriptor load(Method attribute) {
+                    return AliasDescriptor.load(attribute);
+                }
+            };
+
+    private static volatile boolean generatedSynthesis = SpringProperties.getFlag(GENERATED_SYNTHESIS_PROPERTY_NAME);
 
     private static transient Log logger;
 
@@ -512,8 +772,13 @@ public abstract class MyAnnotationUtils {
 
         // Do NOT store result in the findAnnotationCache since doing so could break
         // findAnnotation(Class, Class) and findAnnotation(Method, Class).
-        A ann = findAnnotation(annotatedElement, annotationType, new HashSet<Annotation>());
-        return synthesizeAnnotation(ann, annotatedElement);
+        VisitedElements visited = VisitedElements.acquire();
+        try {
+            A ann = findAnnotation(annotatedElement, annotationType, visited);
+            return synthesizeAnnotation(ann, annotatedElement);
+        } finally {
+            VisitedElements.release(visited);
+        }
     }
 
     /**
@@ -523,22 +788,22 @@ public abstract class MyAnnotationUtils {
      *
      * @param annotatedElement the {@code AnnotatedElement} on which to find the annotation
      * @param annotationType   the annotation type to look for, both locally and as a meta-annotation
-     * @param visited          the set of annotations that have already been visited
+     * @param visited          the annotation types that have already been visited
      * @return the first matching annotation, or {@code null} if not found
      * @since 4.2
      */
     @SuppressWarnings("unchecked")
     private static <A extends Annotation> A findAnnotation(
-            AnnotatedElement annotatedElement, Class<A> annotationType, Set<Annotation> visited) {
+            AnnotatedElement annotatedElement, Class<A> annotationType, VisitedElements visited) {
         try {
-            Annotation[] anns = annotatedElement.getDeclaredAnnotations();
+            Annotation[] anns = getDeclaredAnnotations(annotatedElement);
             for (Annotation ann : anns) {
                 if (ann.annotationType() == annotationType) {
                     return (A) ann;
                 }
             }
             for (Annotation ann : anns) {
-                if (!isInJavaLangAnnotationPackage(ann) && visited.add(ann)) {
+                if (!isInJavaLangAnnotationPackage(ann) && visited.add(ann.annotationType())) {
                     A annotation = findAnnotation((AnnotatedElement) ann.annotationType(), annotationType, visited);
                     if (annotation != null) {
                         return annotation;
@@ -574,79 +839,45 @@ public abstract class MyAnnotationUtils {
             return null;
         }
 
-        AnnotationCacheKey cacheKey = new AnnotationCacheKey(method, annotationType);
-        A result = (A) findAnnotationCache.get(cacheKey);
+        A result = (A) findAnnotationCache.probe(method, annotationType);
 
         if (result == null) {
-            Method resolvedMethod = BridgeMethodResolver.findBridgedMethod(method);
-            result = findAnnotation((AnnotatedElement) resolvedMethod, annotationType);
-            if (result == null) {
-                result = searchOnInterfaces(method, annotationType, method.getDeclaringClass().getInterfaces());
-            }
-
-            Class<?> clazz = method.getDeclaringClass();
-            while (result == null) {
-                clazz = clazz.getSuperclass();
-                if (clazz == null || Object.class == clazz) {
-                    break;
-                }
-                try {
-                    Method equivalentMethod = clazz.getDeclaredMethod(method.getName(), method.getParameterTypes());
-                    Method resolvedEquivalentMethod = BridgeMethodResolver.findBridgedMethod(equivalentMethod);
-                    result = findAnnotation((AnnotatedElement) resolvedEquivalentMethod, annotationType);
-                } catch (NoSuchMethodException ex) {
-                    // No equivalent method found
-                }
-                if (result == null) {
-                    result = searchOnInterfaces(method, annotationType, clazz.getInterfaces());
+            long loadStartTime = System.nanoTime();
+            EquivalentMethods equivalentMethods = getEquivalentMethods(method);
+            result = findAnnotation((AnnotatedElement) equivalentMethods.getResolvedMethod(), annotationType);
+            for (int i = 0; result == null && i < equivalentMethods.size(); i++) {
+                Method equivalentMethod = equivalentMethods.get(i);
+                if (equivalentMethods.isInterfaceMethod(i)) {
+                    result = getAnnotation(equivalentMethod, annotationType);
+                } else {
+                    result = findAnnotation((AnnotatedElement) equivalentMethod, annotationType);
                 }
             }
 
             if (result != null) {
                 result = synthesizeAnnotation(result, method);
-                findAnnotationCache.put(cacheKey, result);
+                findAnnotationCache.put(new AnnotationCacheKey(method, annotationType), result, loadStartTime);
             }
         }
 
         return result;
     }
 
-    private static <A extends Annotation> A searchOnInterfaces(Method method, Class<A> annotationType, Class<?>... ifcs) {
-        A annotation = null;
-        for (Class<?> ifc : ifcs) {
-            if (isInterfaceWithAnnotatedMethods(ifc)) {
-                try {
-                    Method equivalentMethod = ifc.getMethod(method.getName(), method.getParameterTypes());
-                    annotation = getAnnotation(equivalentMethod, annotationType);
-                } catch (NoSuchMethodException ex) {
-                    // Skip this interface - it doesn't have the method...
-                }
-                if (annotation != null) {
-                    break;
-                }
-            }
-        }
-        return annotation;
+    static boolean isInterfaceWithAnnotatedMethods(Class<?> ifc) {
+        return annotatedInterfaceCache.get(ifc, annotatedInterfaceLoader);
     }
 
-    static boolean isInterfaceWithAnnotatedMethods(Class<?> ifc) {
-        Boolean found = annotatedInterfaceCache.get(ifc);
-        if (found != null) {
-            return found;
-        }
-        found = Boolean.FALSE;
+    private static boolean hasAnnotatedMethods(Class<?> ifc) {
         for (Method ifcMethod : ifc.getMethods()) {
             try {
                 if (ifcMethod.getAnnotations().length > 0) {
-                    found = Boolean.TRUE;
-                    break;
+                    return true;
                 }
             } catch (Throwable ex) {
                 handleIntrospectionFailure(ifcMethod, ex);
             }
         }
-        annotatedInterfaceCache.put(ifc, found);
-        return found;
+        return false;
     }
 
     /**
@@ -694,13 +925,18 @@ public abstract class MyAnnotationUtils {
             return null;
         }
 
-        AnnotationCacheKey cacheKey = new AnnotationCacheKey(clazz, annotationType);
-        A result = (A) findAnnotationCache.get(cacheKey);
+        A result = (A) findAnnotationCache.probe(clazz, annotationType);
         if (result == null) {
-            result = findAnnotation(clazz, annotationType, new HashSet<Annotation>());
+            long loadStartTime = System.nanoTime();
+            VisitedElements visited = VisitedElements.acquire();
+            try {
+                result = findAnnotation(clazz, annotationType, visited);
+            } finally {
+                VisitedElements.release(visited);
+            }
             if (result != null && synthesize) {
                 result = synthesizeAnnotation(result, clazz);
-                findAnnotationCache.put(cacheKey, result);
+                findAnnotationCache.put(new AnnotationCacheKey(clazz, annotationType), result, loadStartTime);
             }
         }
         return result;
@@ -713,20 +949,20 @@ public abstract class MyAnnotationUtils {
      *
      * @param clazz          the class to look for annotations on
      * @param annotationType the type of annotation to look for
-     * @param visited        the set of annotations that have already been visited
+     * @param visited        the annotation types that have already been visited
      * @return the first matching annotation, or {@code null} if not found
      */
     @SuppressWarnings("unchecked")
-    private static <A extends Annotation> A findAnnotation(Class<?> clazz, Class<A> annotationType, Set<Annotation> visited) {
+    private static <A extends Annotation> A findAnnotation(Class<?> clazz, Class<A> annotationType, VisitedElements visited) {
         try {
-            Annotation[] anns = clazz.getDeclaredAnnotations();
+            Annotation[] anns = getDeclaredAnnotations(clazz);
             for (Annotation ann : anns) {
                 if (ann.annotationType() == annotationType) {
                     return (A) ann;
                 }
             }
             for (Annotation ann : anns) {
-                if (!isInJavaLangAnnotationPackage(ann) && visited.add(ann)) {
+                if (!isInJavaLangAnnotationPackage(ann) && visited.add(ann.annotationType())) {
                     A annotation = findAnnotation(ann.annotationType(), annotationType, visited);
                     if (annotation != null) {
                         return annotation;
@@ -901,17 +1137,11 @@ public abstract class MyAnnotationUtils {
             return false;
         }
 
-        AnnotationCacheKey cacheKey = new AnnotationCacheKey(annotationType, metaAnnotationType);
-        Boolean metaPresent = metaPresentCache.get(cacheKey);
-        if (metaPresent != null) {
-            return metaPresent;
-        }
-        metaPresent = Boolean.FALSE;
-        if (findAnnotation(annotationType, metaAnnotationType, false) != null) {
-            metaPresent = Boolean.TRUE;
+        Boolean result = metaPresentCache.probe(annotationType, metaAnnotationType);
+        if (result != null) {
+            return result;
         }
-        metaPresentCache.put(cacheKey, metaPresent);
-        return metaPresent;
+        return metaPresentCache.load(new AnnotationCacheKey(annotationType, metaAnnotationType), metaPresentLoader);
     }
 
     /**
@@ -1521,6 +1751,12 @@ public abstract class MyAnnotationUtils {
 
         DefaultAnnotationAttributeExtractor attributeExtractor =
                 new DefaultAnnotationAttributeExtractor(annotation, annotatedElement);
+        if (generatedSynthesis) {
+            A synthesized = SynthesizedAnnotationClassGenerator.synthesize(attributeExtractor);
+            if (synthesized != null) {
+                return synthesized;
+            }
+        }
         InvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
 
         // Can always expose Spring's SynthesizedAnnotation marker since we explicitly check for a
@@ -1569,8 +1805,16 @@ public abstract class MyAnnotationUtils {
             return null;
         }
 
-        MapAnnotationAttributeExtractor attributeExtractor =
-                new MapAnnotationAttributeExtractor(attributes, annotationType, annotatedElement);
+        // Cached merged attributes keep their validated extractor across calls
+        MapAnnotationAttributeExtractor attributeExtractor = (attributes instanceof ReadOnlyAnnotationAttributes ?
+                ((ReadOnlyAnnotationAttributes) attributes).getAttributeExtractor(annotationType, annotatedElement) :
+                new MapAnnotationAttributeExtractor(attributes, annotationType, annotatedElement));
+        if (generatedSynthesis) {
+            A synthesized = SynthesizedAnnotationClassGenerator.synthesize(attributeExtractor);
+            if (synthesized != null) {
+                return synthesized;
+            }
+        }
         InvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
         Class<?>[] exposedInterfaces = (canExposeSynthesizedMarker(annotationType) ?
                 new Class<?>[]{annotationType, SynthesizedAnnotation.class} : new Class<?>[]{annotationType});
@@ -1684,21 +1928,112 @@ public abstract class MyAnnotationUtils {
             return Collections.emptyMap();
         }
 
-        Map<String, List<String>> map = attributeAliasesCache.get(annotationType);
-        if (map != null) {
-            return map;
+        return attributeAliasesCache.get(annotationType, attributeAliasesLoader);
+    }
+
+    /**
+     * Get the attributes of the target annotation type that the attributes
+     * of the supplied annotation type override when merging.
+     *
+     * @param annotationType       the type of the annotation whose attribute
+     *                             values override
+     * @param targetAnnotationType the type of the annotation whose attributes
+     *                             are overridden
+     * @return the attribute overrides, resolved once per pair of types
+     * @throws AnnotationConfigurationException if invalid configuration of
+     *                                          {@code @AliasFor} is detected
+     * @since 4.3.28
+     */
+    static AttributeOverrides getAttributeOverrides(Class<? extends Annotation> annotationType,
+                                                    Class<? extends Annotation> targetAnnotationType) {
+
+        AttributeOverrides overrides = attributeOverridesCache.probe(annotationType, targetAnnotationType);
+        if (overrides != null) {
+            return overrides;
         }
+        return attributeOverridesCache.load(new AnnotationCacheKey(annotationType, targetAnnotationType),
+                attributeOverridesLoader);
+    }
 
-        map = new LinkedHashMap<String, List<String>>();
-        for (Method attribute : getAttributeMethods(annotationType)) {
-            List<String> aliasNames = getAttributeAliasNames(attribute);
-            if (!aliasNames.isEmpty()) {
-                map.put(attribute.getName(), aliasNames);
-            }
+    /**
+     * Get the cached read-only merged attributes of the supplied class or
+     * member and annotation type, one per variant.
+     * <p>The variants are filled in by {@link MyAnnotatedElementUtils}; an
+     * empty slot has not been merged yet.
+     *
+     * @param element        the class or member
+     * @param annotationType the annotation type whose attributes are merged
+     * @return the variants of merged attributes
+     * @see #MERGED_ATTRIBUTES_VARIANTS
+     * @since 4.3.28
+     */
+    static AtomicReferenceArray<AnnotationAttributes> getMergedAttributesVariants(
+            AnnotatedElement element, Class<? extends Annotation> annotationType) {
+
+        AtomicReferenceArray<AnnotationAttributes> variants = mergedAttributesCache.probe(element, annotationType);
+        if (variants != null) {
+            return variants;
+        }
+        return mergedAttributesCache.load(new AnnotationCacheKey(element, annotationType), mergedAttributesLoader);
+    }
+
+    /**
+     * Get the equivalent methods in the hierarchy of the supplied method,
+     * which find semantics search in addition to the method itself.
+     *
+     * @param method the method
+     * @return the equivalent methods, resolved once per method
+     * @since 4.3.28
+     */
+    static EquivalentMethods getEquivalentMethods(Method method) {
+        return equivalentMethodsCache.get(method, equivalentMethodsLoader);
+    }
+
+    /**
+     * Get the annotations declared on the supplied element, without copying
+     * them for classes and members.
+     * <p>The returned array is shared and must not be modified.
+     *
+     * @param element the annotated element
+     * @return the declared annotations, possibly empty
+     * @see AnnotatedElement#getDeclaredAnnotations()
+     * @since 4.3.28
+     */
+    static Annotation[] getDeclaredAnnotations(AnnotatedElement element) {
+        if (element instanceof Class || element instanceof Member) {
+            return declaredAnnotationsCache.get(element, declaredAnnotationsLoader);
+        }
+        return element.getDeclaredAnnotations();
+    }
+
+    /**
+     * Get the annotation types present and meta-present on the supplied
+     * element, following <em>get semantics</em>.
+     * <p>Only classes and members are cached; other elements, such as the
+     * adapters returned by {@link MyAnnotatedElementUtils#forAnnotations},
+     * are introspected on every call.
+     *
+     * @param element the annotated element
+     * @return the annotation presence of the element
+     * @since 4.3.28
+     */
+    static AnnotationPresence getAnnotationPresence(AnnotatedElement element) {
+        if (element instanceof Class || element instanceof Member) {
+            return annotationPresenceCache.get(element, annotationPresenceLoader);
         }
+        return MyAnnotatedElementUtils.introspectAnnotationPresence(element);
+    }
 
-        attributeAliasesCache.put(annotationType, map);
-        return map;
+    /**
+     * Get the fully qualified class names of all meta-annotation types
+     * present on the supplied annotation type.
+     *
+     * @param annotationType the annotation type
+     * @return an immutable set of names, empty if there are none
+     * @since 4.3.28
+     */
+    static Set<String> getMetaAnnotationTypeNames(Class<? extends Annotation> annotationType) {
+        return metaAnnotationTypesCache.get(annotationType, metaAnnotationTypesLoader);
     }
 
     /**
@@ -1706,7 +2041,7 @@ public abstract class MyAnnotationUtils {
      *
      * @param annotationType the annotation type that we are about to create a synthesized proxy for
      */
-    private static boolean canExposeSynthesizedMarker(Class<? extends Annotation> annotationType) {
+    static boolean canExposeSynthesizedMarker(Class<? extends Annotation> annotationType) {
         try {
             return (Class.forName(SynthesizedAnnotation.class.getName(), false, annotationType.getClassLoader()) ==
                     SynthesizedAnnotation.class);
@@ -1729,38 +2064,45 @@ public abstract class MyAnnotationUtils {
      * @see SynthesizedAnnotationInvocationHandler
      * @since 4.2
      */
-    @SuppressWarnings("unchecked")
     private static boolean isSynthesizable(Class<? extends Annotation> annotationType) {
-        Boolean synthesizable = synthesizableCache.get(annotationType);
-        if (synthesizable != null) {
-            return synthesizable;
-        }
+        return synthesizableCache.get(annotationType, synthesizableLoader);
+    }
 
-        synthesizable = Boolean.FALSE;
+    @SuppressWarnings("unchecked")
+    private static boolean hasAliasesOrSynthesizableNestedTypes(Class<? extends Annotation> annotationType) {
         for (Method attribute : getAttributeMethods(annotationType)) {
             if (!getAttributeAliasNames(attribute).isEmpty()) {
-                synthesizable = Boolean.TRUE;
-                break;
+                return true;
             }
             Class<?> returnType = attribute.getReturnType();
             if (Annotation[].class.isAssignableFrom(returnType)) {
                 Class<? extends Annotation> nestedAnnotationType =
                         (Class<? extends Annotation>) returnType.getComponentType();
                 if (isSynthesizable(nestedAnnotationType)) {
-                    synthesizable = Boolean.TRUE;
-                    break;
+                    return true;
                 }
             } else if (Annotation.class.isAssignableFrom(returnType)) {
                 Class<? extends Annotation> nestedAnnotationType = (Class<? extends Annotation>) returnType;
                 if (isSynthesizable(nestedAnnotationType)) {
-                    synthesizable = Boolean.TRUE;
-                    break;
+                    return true;
                 }
             }
         }
+        return false;
+    }
 
-        synthesizableCache.put(annotationType, synthesizable);
-        return synthesizable;
+    /**
+     * Validate all {@link MyAliasFor @AliasFor} declarations of the supplied
+     * annotation type, regardless of the alias index and verified manifest.
+     *
+     * @param annotationType the annotation type to validate
+     * @throws AnnotationConfigurationException if invalid configuration of
+     *                                          {@code @AliasFor} is detected
+     * @see MyAliasVerifier
+     * @since 4.3.28
+     */
+    static void validateAliasDeclarations(Class<? extends Annotation> annotationType) {
+        AliasDescriptor.validateAll(annotationType);
     }
 
     /**
@@ -1780,7 +2122,11 @@ public abstract class MyAnnotationUtils {
     static List<String> getAttributeAliasNames(Method attribute) {
         Assert.notNull(attribute, "attribute must not be null");
         AliasDescriptor descriptor = AliasDescriptor.from(attribute);
-        return (descriptor != null ? descriptor.getAttributeAliasNames() : Collections.<String>emptyList());
+        if (descriptor == null) {
+            return Collections.emptyList();
+        }
+        List<String> aliasNames = getAttributeAliasMap(descriptor.sourceAnnotationType).get(attribute.getName());
+        return (aliasNames != null ? aliasNames : Collections.<String>emptyList());
     }
 
     /**
@@ -1823,20 +2169,17 @@ public abstract class MyAnnotationUtils {
      * @since 4.2
      */
     static List<Method> getAttributeMethods(Class<? extends Annotation> annotationType) {
-        List<Method> methods = attributeMethodsCache.get(annotationType);
-        if (methods != null) {
-            return methods;
-        }
+        return attributeMethodsCache.get(annotationType, attributeMethodsLoader);
+    }
 
-        methods = new ArrayList<Method>();
+    private static List<Method> findAttributeMethods(Class<? extends Annotation> annotationType) {
+        List<Method> methods = new ArrayList<Method>();
         for (Method method : annotationType.getDeclaredMethods()) {
             if (isAttributeMethod(method)) {
                 ReflectionUtils.makeAccessible(method);
                 methods.add(method);
             }
         }
-
-        attributeMethodsCache.put(annotationType, methods);
         return methods;
     }
 
@@ -1961,13 +2304,479 @@ public abstract class MyAnnotationUtils {
      * @since 4.3.15
      */
     public static void clearCache() {
-        findAnnotationCache.clear();
-        metaPresentCache.clear();
-        annotatedInterfaceCache.clear();
-        synthesizableCache.clear();
-        attributeAliasesCache.clear();
-        attributeMethodsCache.clear();
-        aliasDescriptorCache.clear();
+        for (ConfigurableAnnotationCache<?, ?> cache : caches.values()) {
+            cache.clear();
+        }
+        SynthesizedAnnotationClassGenerator.clearCache();
+        MyAliasForIndex.clearCache();
+        MyAliasVerifier.clearCache();
+    }
+
+    /**
+     * Replace the implementation of one of the internal metadata caches.
+     * <p>The entries of the previous implementation are discarded.
+     *
+     * @param cacheName the name of the cache, e.g. {@link #FIND_ANNOTATION_CACHE}
+     * @param cache     the cache to use from now on, or {@code null} to
+     *                  restore the default unbounded cache
+     * @throws IllegalArgumentException if there is no cache with the given name
+     * @see #setCacheLimit(String, int)
+     * @since 4.3.28
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void setCache(String cacheName, AnnotationCache<?, ?> cache) {
+        ConfigurableAnnotationCache configurable = getConfigurableCache(cacheName);
+        configurable.setDelegate(cache != null ? cache : createUnboundedCache(cacheName));
+    }
+
+    /**
+     * Cap the size of one of the internal metadata caches, using a
+     * {@link SegmentedLruAnnotationCache} so that frequently used entries are
+     * retained and only rarely used ones are evicted.
+     *
+     * @param cacheName    the name of the cache, e.g. {@link #FIND_ANNOTATION_CACHE}
+     * @param maximumSize  the maximum number of entries, or {@code 0} to
+     *                     restore the default unbounded cache
+     * @throws IllegalArgumentException if there is no cache with the given name
+     * @see #CACHE_LIMIT_PROPERTY_NAME
+     * @since 4.3.28
+     */
+    public static void setCacheLimit(String cacheName, int maximumSize) {
+        Assert.isTrue(maximumSize >= 0, "Maximum size must not be negative");
+        setCache(cacheName, maximumSize > 0 ? new SegmentedLruAnnotationCache<Object, Object>(maximumSize) : null);
+    }
+
+    /**
+     * Return the names of all internal metadata caches.
+     *
+     * @since 4.3.28
+     */
+    public static Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private static ConfigurableAnnotationCache<?, ?> getConfigurableCache(String cacheName) {
+        ConfigurableAnnotationCache<?, ?> cache = caches.get(cacheName);
+        if (cache == null) {
+            throw new IllegalArgumentException("No annotation cache named '" + cacheName + "'; available caches: " +
+                    caches.keySet());
+        }
+        return cache;
+    }
+
+    private static <K, V> ConfigurableAnnotationCache<K, V> registerCache(String cacheName) {
+        ConfigurableAnnotationCache<K, V> cache =
+                new ConfigurableAnnotationCache<K, V>(cacheName, MyAnnotationUtils.<K, V>createDefaultCache(cacheName));
+        caches.put(cacheName, cache);
+        return cache;
+    }
+
+    private static <K, V> AnnotationCache<K, V> createDefaultCache(String cacheName) {
+        String limit = SpringProperties.getProperty(CACHE_LIMIT_PROPERTY_NAME + "." + cacheName);
+        if (limit == null) {
+            limit = SpringProperties.getProperty(CACHE_LIMIT_PROPERTY_NAME);
+        }
+        int maximumSize = parseCacheLimit(cacheName, limit);
+        if (maximumSize > 0) {
+            return new SegmentedLruAnnotationCache<K, V>(maximumSize);
+        }
+        return createUnboundedCache(cacheName);
+    }
+
+    /**
+     * Parse a configured cache limit. Runs during class initialization, so a
+     * malformed value is logged and ignored rather than thrown.
+     *
+     * @param cacheName the name of the cache the limit applies to
+     * @param limit     the configured limit, may be {@code null}
+     * @return the maximum size, or {@code 0} for the unbounded default
+     */
+    static int parseCacheLimit(String cacheName, String limit) {
+        if (!StringUtils.hasText(limit)) {
+            return 0;
+        }
+        try {
+            return Math.max(Integer.parseInt(limit.trim()), 0);
+        } catch (NumberFormatException ex) {
+            LogFactory.getLog(MyAnnotationUtils.class).warn("Ignoring invalid limit '" + limit + "' for annotation cache '" +
+                    cacheName + "', using an unbounded cache: " + ex);
+            return 0;
+        }
+    }
+
+    /**
+     * Create the default unbounded cache: held per annotation type by
+     * {@link AnnotationTypeMetadata} where the cache is keyed by annotation
+     * type, two-level by element and annotation type where it is keyed by
+     * {@link AnnotationCacheKey}, soft-referenced otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> AnnotationCache<K, V> createUnboundedCache(String cacheName) {
+        if (FIND_ANNOTATION_CACHE.equals(cacheName) || META_PRESENT_CACHE.equals(cacheName) ||
+                ATTRIBUTE_OVERRIDES_CACHE.equals(cacheName) || MERGED_ATTRIBUTES_CACHE.equals(cacheName)) {
+            return (AnnotationCache<K, V>) new ElementAnnotationCache<V>();
+        }
+        AnnotationCache<K, V> cache = AnnotationTypeMetadata.createCache(cacheName);
+        return (cache != null ? cache : new SoftReferenceAnnotationCache<K, V>());
+    }
+
+    /**
+     * Switch between JDK dynamic proxies (the default) and generated classes
+     * for synthesized annotations.
+     * <p>Generated classes resolve all attribute values when the annotation is
+     * synthesized and precompute {@code hashCode()} and {@code toString()}, so
+     * that attribute reads avoid reflective dispatch. Annotation types for which
+     * no class can be generated (e.g. non-public ones) still use a proxy.
+     *
+     * @param generated {@code true} to synthesize annotations as instances of
+     *                  generated classes
+     * @see #GENERATED_SYNTHESIS_PROPERTY_NAME
+     * @since 4.3.28
+     */
+    public static void setGeneratedSynthesis(boolean generated) {
+        generatedSynthesis = generated;
+    }
+
+
+    /**
+     * Named cache slot whose implementation can be swapped at runtime,
+     * recording {@link AnnotationCacheStatistics} for every access.
+     */
+    static final class ConfigurableAnnotationCache<K, V> implements AnnotationCache<K, V> {
+
+        private final AnnotationCacheStatistics statistics;
+
+        private final LongAdder retiredEvictionCount = new LongAdder();
+
+        private final ConcurrentMap<K, InFlightLoad<V>> inFlight = new ConcurrentHashMap<K, InFlightLoad<V>>();
+
+        private volatile AnnotationCache<K, V> delegate;
+
+        /**
+         * Incremented by every {@link #clear()}, so that values computed
+         * across a clear are not cached.
+         */
+        private volatile int clearCount;
+
+        ConfigurableAnnotationCache(String cacheName, AnnotationCache<K, V> delegate) {
+            this.delegate = delegate;
+            this.statistics = AnnotationCacheStatistics.register(cacheName, this);
+        }
+
+        synchronized void setDelegate(AnnotationCache<K, V> delegate) {
+            this.retiredEvictionCount.add(this.delegate.getEvictionCount());
+            this.delegate = delegate;
+        }
+
+        @Override
+        public V get(K key) {
+            V value = this.delegate.get(key);
+            if (value != null) {
+                this.statistics.recordHit();
+            } else {
+                this.statistics.recordMiss();
+            }
+            return value;
+        }
+
+        @Override
+        public void put(K key, V value) {
+            this.delegate.put(key, value);
+        }
+
+        /**
+         * Cache a value computed after a miss, recording the time taken.
+         *
+         * @param loadStartTime the {@link System#nanoTime()} at which
+         *                      computing the value started
+         */
+        void put(K key, V value, long loadStartTime) {
+            this.statistics.recordLoad(loadStartTime);
+            this.delegate.put(key, value);
+        }
+
+        /**
+         * Return the value cached for the given element and annotation type,
+         * without allocating an {@link AnnotationCacheKey} if the current
+         * implementation is an {@link ElementAnnotationCache}.
+         *
+         * @since 4.3.28
+         */
+        @SuppressWarnings("unchecked")
+        V probe(AnnotatedElement element, Class<? extends Annotation> annotationType) {
+            AnnotationCache<K, V> delegate = this.delegate;
+            V value;
+            if (delegate instanceof ElementAnnotationCache) {
+                value = ((ElementAnnotationCache<V>) delegate).get(element, annotationType);
+            } else {
+                value = delegate.get((K) new AnnotationCacheKey(element, annotationType));
+            }
+            if (value != null) {
+                this.statistics.recordHit();
+            } else {
+                this.statistics.recordMiss();
+            }
+            return value;
+        }
+
+        /**
+         * Return the cached value for the given key, computing it with the
+         * given loader on a miss. Concurrent misses for the same key wait for
+         * a single in-flight computation instead of repeating it; no lock is
+         * held while computing. {@code null} results are handed to waiting
+         * threads but not cached.
+         *
+         * @since 4.3.28
+         */
+        V get(K key, CacheLoader<K, V> loader) {
+            V value = get(key);
+            if (value != null) {
+                return value;
+            }
+            return load(key, loader);
+        }
+
+        /**
+         * Compute the value for the given key after a recorded miss, as
+         * {@link #get(Object, CacheLoader)} does.
+         * <p>A thread never waits for a computation that waits for the
+         * thread itself, either directly or through other waiting threads,
+         * as happens when the loaders of two keys need each other's value,
+         * e.g. for mutually meta-annotated types. It computes the value
+         * itself instead, without caching it.
+         *
+         * @since 4.3.28
+         */
+        V load(K key, CacheLoader<K, V> loader) {
+            V value;
+            InFlightLoad<V> load = new InFlightLoad<V>();
+            InFlightLoad<V> existing = this.inFlight.putIfAbsent(key, load);
+            if (existing != null) {
+                if (existing.owner != Thread.currentThread() && existing.startWaiting()) {
+                    return existing.await();
+                }
+                // Re-entrant miss for a key this thread is computing, or that
+                // is computed by a thread waiting for this one
+                return loader.load(key);
+            }
+            try {
+                int clearCount = this.clearCount;
+                value = this.delegate.get(key);
+                if (value == null) {
+                    long loadStartTime = System.nanoTime();
+                    value = loader.load(key);
+                    if (value != null) {
+                        synchronized (this) {
+                            // Computed from metadata that may have been cleared meanwhile
+                            if (this.clearCount == clearCount) {
+                                put(key, value, loadStartTime);
+                            }
+                        }
+                    }
+                }
+                load.complete(value, null);
+                return value;
+            } catch (RuntimeException ex) {
+                load.complete(null, ex);
+                throw ex;
+            } catch (Error err) {
+                load.complete(null, err);
+                throw err;
+            } finally {
+                this.inFlight.remove(key, load);
+            }
+        }
+
+        @Override
+        public synchronized void clear() {
+            this.clearCount++;
+            this.delegate.clear();
+        }
+
+        @Override
+        public int size() {
+            return this.delegate.size();
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return this.retiredEvictionCount.sum() + this.delegate.getEvictionCount();
+        }
+    }
+
+
+    /**
+     * Default unbounded cache for {@link AnnotationCacheKey} entries, holding
+     * a small map per annotated element so that it can be probed with the
+     * element and the annotation type directly.
+     * <p>Elements are soft-referenced; each released element counts as one
+     * eviction, however many entries it held.
+     *
+     * @see ConfigurableAnnotationCache#probe(AnnotatedElement, Class)
+     * @since 4.3.28
+     */
+    private static final class ElementAnnotationCache<V> implements AnnotationCache<AnnotationCacheKey, V> {
+
+        private final LongAdder evictionCount = new LongAdder();
+
+        private final ConcurrentReferenceHashMap<AnnotatedElement, ConcurrentMap<Class<?>, V>> elements =
+                new ConcurrentReferenceHashMap<AnnotatedElement, ConcurrentMap<Class<?>, V>>(256) {
+                    @Override
+                    protected ReferenceManager createReferenceManager() {
+                        return new ReferenceManager() {
+                            @Override
+                            public Reference<AnnotatedElement, ConcurrentMap<Class<?>, V>> pollForPurge() {
+                                Reference<AnnotatedElement, ConcurrentMap<Class<?>, V>> reference = super.pollForPurge();
+                                if (reference != null) {
+                                    evictionCount.increment();
+                                }
+                                return reference;
+                            }
+                        };
+                    }
+                };
+
+        V get(AnnotatedElement element, Class<?> annotationType) {
+            ConcurrentMap<Class<?>, V> values = this.elements.get(element);
+            return (values != null ? values.get(annotationType) : null);
+        }
+
+        @Override
+        public V get(AnnotationCacheKey key) {
+            return get(key.element, key.annotationType);
+        }
+
+        @Override
+        public void put(AnnotationCacheKey key, V value) {
+            if (value == null) {
+                return;
+            }
+            ConcurrentMap<Class<?>, V> values = this.elements.get(key.element);
+            if (values == null) {
+                values = new ConcurrentHashMap<Class<?>, V>(4);
+                ConcurrentMap<Class<?>, V> existing = this.elements.putIfAbsent(key.element, values);
+                if (existing != null) {
+                    values = existing;
+                }
+            }
+            values.put(key.annotationType, value);
+        }
+
+        @Override
+        public void clear() {
+            this.elements.clear();
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (ConcurrentMap<Class<?>, V> values : this.elements.values()) {
+                size += values.size();
+            }
+            return size;
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return this.evictionCount.sum();
+        }
+    }
+
+
+    /**
+     * Computes the value of a cache entry on a miss.
+     *
+     * @see ConfigurableAnnotationCache#get(Object, CacheLoader)
+     * @since 4.3.28
+     */
+    interface CacheLoader<K, V> {
+
+        V load(K key);
+    }
+
+
+    /**
+     * Computation of a cache entry that concurrent misses for the same key
+     * wait on.
+     *
+     * @since 4.3.28
+     */
+    private static final class InFlightLoad<V> {
+
+        /**
+         * The computation each thread is waiting for, across all caches.
+         */
+        private static final ConcurrentMap<Thread, InFlightLoad<?>> waiting =
+                new ConcurrentHashMap<Thread, InFlightLoad<?>>();
+
+        private final Thread owner = Thread.currentThread();
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private V value;
+
+        private Throwable failure;
+
+        void complete(V value, Throwable failure) {
+            this.value = value;
+            this.failure = failure;
+            this.latch.countDown();
+        }
+
+        /**
+         * Register the current thread as waiting for this computation, unless
+         * its owner is, possibly through other waiting threads, waiting for
+         * the current thread.
+         * <p>The current thread is registered before following the chain of
+         * waiting threads, so that of two threads closing a cycle at the same
+         * time at least one sees the other.
+         *
+         * @return {@code true} if the current thread may {@link #await()},
+         * {@code false} if that would deadlock
+         */
+        boolean startWaiting() {
+            Thread current = Thread.currentThread();
+            waiting.put(current, this);
+            Thread thread = this.owner;
+            for (int i = 0; thread != null && i <= waiting.size(); i++) {
+                if (thread == current) {
+                    waiting.remove(current, this);
+                    return false;
+                }
+                InFlightLoad<?> load = waiting.get(thread);
+                thread = (load != null ? load.owner : null);
+            }
+            return true;
+        }
+
+        /**
+         * Wait for the computation, after {@link #startWaiting()}.
+         */
+        V await() {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        this.latch.await();
+                        break;
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                waiting.remove(Thread.currentThread(), this);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (this.failure instanceof RuntimeException) {
+                throw (RuntimeException) this.failure;
+            }
+            if (this.failure instanceof Error) {
+                throw (Error) this.failure;
+            }
+            return this.value;
+        }
     }
 
 
@@ -2026,7 +2835,7 @@ public abstract class MyAnnotationUtils {
 
         private final boolean declaredMode;
 
-        private final Set<AnnotatedElement> visited = new HashSet<AnnotatedElement>();
+        private VisitedElements visited;
 
         private final Set<A> result = new LinkedHashSet<A>();
 
@@ -2038,7 +2847,13 @@ public abstract class MyAnnotationUtils {
         }
 
         Set<A> getResult(AnnotatedElement element) {
-            process(element);
+            this.visited = VisitedElements.acquire();
+            try {
+                process(element);
+            } finally {
+                VisitedElements.release(this.visited);
+                this.visited = null;
+            }
             return Collections.unmodifiableSet(this.result);
         }
 
@@ -2046,7 +2861,7 @@ public abstract class MyAnnotationUtils {
         private void process(AnnotatedElement element) {
             if (this.visited.add(element)) {
                 try {
-                    Annotation[] annotations = (this.declaredMode ? element.getDeclaredAnnotations() : element.getAnnotations());
+                    Annotation[] annotations = (this.declaredMode ? getDeclaredAnnotations(element) : element.getAnnotations());
                     for (Annotation ann : annotations) {
                         Class<? extends Annotation> currentAnnotationType = ann.annotationType();
                         if (ObjectUtils.nullSafeEquals(this.annotationType, currentAnnotationType)) {
@@ -2130,8 +2945,21 @@ public abstract class MyAnnotationUtils {
          * @see #validateAgainst
          */
         public static AliasDescriptor from(Method attribute) {
-            AliasDescriptor descriptor = aliasDescriptorCache.get(attribute);
-            if (descriptor != null) {
+            return aliasDescriptorCache.get(attribute, aliasDescriptorLoader);
+        }
+
+        private static AliasDescriptor load(Method attribute) {
+            List<Method> indexedTargets = getIndexedAliasTargets(attribute);
+            if (indexedTargets != null) {
+                if (indexedTargets.isEmpty()) {
+                    return null;
+                }
+                // The processor already checked the @AliasFor declarations themselves,
+                // the remaining checks only need the resolved alias targets
+                AliasDescriptor descriptor = new AliasDescriptor(attribute, indexedTargets);
+                if (!MyAliasVerifier.isVerified(descriptor.sourceAnnotationType)) {
+                    descriptor.validate(false);
+                }
                 return descriptor;
             }
 
@@ -2140,12 +2968,170 @@ public abstract class MyAnnotationUtils {
                 return null;
             }
 
-            descriptor = new AliasDescriptor(attribute, aliasFors);
-            descriptor.validate();
-            aliasDescriptorCache.put(attribute, descriptor);
+            AliasDescriptor descriptor = new AliasDescriptor(attribute, aliasFors);
+            if (!MyAliasVerifier.isVerified(descriptor.sourceAnnotationType)) {
+                descriptor.validate(true);
+            }
             return descriptor;
         }
 
+        /**
+         * Validate all alias declarations of the supplied annotation type,
+         * bypassing the alias index and the verified manifest.
+         *
+         * @throws AnnotationConfigurationException if an alias is misconfigured
+         * @see MyAliasVerifier
+         * @since 4.3.28
+         */
+        static void validateAll(Class<? extends Annotation> annotationType) {
+            List<Method> attributes = getAttributeMethods(annotationType);
+            AliasDescriptor[] descriptors = new AliasDescriptor[attributes.size()];
+            for (int i = 0; i < descriptors.length; i++) {
+                MyAliasFor[] aliasFors = getAliasFors(attributes.get(i));
+                if (aliasFors != null) {
+                    descriptors[i] = new AliasDescriptor(attributes.get(i), aliasFors);
+                    descriptors[i].validate(true);
+                }
+            }
+            int[] roots = computeAliasRoots(descriptors);
+            for (int i = 0; i < descriptors.length; i++) {
+                for (int j = 0; j < descriptors.length; j++) {
+                    if (i != j && descriptors[i] != null && descriptors[j] != null && roots[i] == roots[j]) {
+                        descriptors[i].validateAgainst(descriptors[j]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Compute the aliases of all attributes of the supplied annotation
+         * type in one pass: the explicit alias pairs of each attribute,
+         * followed by the other attributes of its equivalence class of
+         * implicit aliases.
+         *
+         * @return a map from attribute name to alias names, containing only
+         * attributes that declare aliases
+         * @throws AnnotationConfigurationException if an alias is misconfigured
+         * @see #computeAliasRoots
+         * @since 4.3.28
+         */
+        static Map<String, List<String>> computeAttributeAliasMap(Class<? extends Annotation> annotationType) {
+            List<Method> attributes = getAttributeMethods(annotationType);
+            AliasDescriptor[] descriptors = new AliasDescriptor[attributes.size()];
+            for (int i = 0; i < descriptors.length; i++) {
+                descriptors[i] = from(attributes.get(i));
+            }
+            int[] roots = computeAliasRoots(descriptors);
+            Map<Integer, List<AliasDescriptor>> classes = new LinkedHashMap<Integer, List<AliasDescriptor>>();
+            for (int i = 0; i < descriptors.length; i++) {
+                if (descriptors[i] != null) {
+                    List<AliasDescriptor> members = classes.get(roots[i]);
+                    if (members == null) {
+                        members = new ArrayList<AliasDescriptor>(2);
+                        classes.put(roots[i], members);
+                    }
+                    members.add(descriptors[i]);
+                }
+            }
+
+            boolean validate = !MyAliasVerifier.isVerified(annotationType);
+            Map<String, List<String>> map = new LinkedHashMap<String, List<String>>();
+            for (int i = 0; i < descriptors.length; i++) {
+                AliasDescriptor descriptor = descriptors[i];
+                if (descriptor == null) {
+                    continue;
+                }
+                // Explicit alias pairs
+                List<String> aliases = new ArrayList<String>();
+                for (Alias alias : descriptor.aliases) {
+                    if (alias.isAliasPair) {
+                        aliases.add(alias.aliasedAttributeName);
+                    }
+                }
+                // Implicit aliases
+                for (AliasDescriptor otherDescriptor : classes.get(roots[i])) {
+                    if (otherDescriptor != descriptor) {
+                        if (validate) {
+                            descriptor.validateAgainst(otherDescriptor);
+                        }
+                        aliases.add(otherDescriptor.sourceAttributeName);
+                    }
+                }
+                if (!aliases.isEmpty()) {
+                    map.put(descriptor.sourceAttributeName, aliases);
+                }
+            }
+            return map;
+        }
+
+        /**
+         * Partition the supplied descriptors into equivalence classes of
+         * implicit aliases with a disjoint-set structure: two descriptors are
+         * merged if their attribute override hierarchies alias a common
+         * attribute. Each aliased attribute is owned by the first descriptor
+         * reaching it, so every descriptor is merged at most once per
+         * attribute in its hierarchy.
+         * <p>Implicit aliases are transitive: an attribute aliasing attributes
+         * of two meta-annotations links the attributes aliasing either of
+         * them, even though those never share an aliased attribute. They
+         * always hold the same value, so their defaults are compared as well,
+         * which never rejects a type that the pairwise checks accept.
+         *
+         * @param descriptors the descriptors per attribute, {@code null} for
+         *                    attributes without {@code @AliasFor}
+         * @return the index of the representative of each descriptor's class
+         * @since 4.3.28
+         */
+        private static int[] computeAliasRoots(AliasDescriptor[] descriptors) {
+            int[] parents = new int[descriptors.length];
+            Map<Method, Integer> owners = new HashMap<Method, Integer>();
+            for (int i = 0; i < descriptors.length; i++) {
+                parents[i] = i;
+                if (descriptors[i] == null) {
+                    continue;
+                }
+                for (Method aliasedAttribute : descriptors[i].getAliasedAttributeHierarchy()) {
+                    Integer owner = owners.get(aliasedAttribute);
+                    if (owner == null) {
+                        owners.put(aliasedAttribute, i);
+                    } else {
+                        int ownerRoot = findRoot(parents, owner);
+                        int root = findRoot(parents, i);
+                        if (ownerRoot != root) {
+                            parents[Math.max(ownerRoot, root)] = Math.min(ownerRoot, root);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = findRoot(parents, i);
+            }
+            return parents;
+        }
+
+        private static int findRoot(int[] parents, int index) {
+            while (parents[index] != index) {
+                // Path halving
+                parents[index] = parents[parents[index]];
+                index = parents[index];
+            }
+            return index;
+        }
+
+        /**
+         * Read the alias targets of the supplied attribute from the
+         * {@link MyAliasForIndex}, if its annotation type is indexed.
+         *
+         * @return the alias targets, or {@code null} if they need to be
+         * resolved through reflection
+         * @since 4.3.28
+         */
+        private static List<Method> getIndexedAliasTargets(Method attribute) {
+            Class<?> annotationType = attribute.getDeclaringClass();
+            MyAliasForIndex index = MyAliasForIndex.forAnnotationType(annotationType);
+            return (index.isIndexed(annotationType) ? index.getAliasTargets(attribute, true) : null);
+        }
+
         /**
          * First try to obtain {@link MyAliasFors},if it cannot be obtained,
          * try to obtain {@link MyAliasFor} again, if it can be obtained,
@@ -2166,6 +3152,21 @@ public abstract class MyAnnotationUtils {
             return aliasFors.value();
         }
 
+        @SuppressWarnings("unchecked")
+        private AliasDescriptor(Method sourceAttribute, List<Method> aliasedAttributes) {
+            this.sourceAttribute = sourceAttribute;
+            this.sourceAnnotationType = (Class<? extends Annotation>) sourceAttribute.getDeclaringClass();
+            this.sourceAttributeName = sourceAttribute.getName();
+            this.aliases = new Alias[aliasedAttributes.size()];
+            for (int i = 0; i < this.aliases.length; i++) {
+                Method aliasedAttribute = aliasedAttributes.get(i);
+                Class<? extends Annotation> aliasedAnnotationType =
+                        (Class<? extends Annotation>) aliasedAttribute.getDeclaringClass();
+                this.aliases[i] = new Alias(aliasedAttribute, aliasedAnnotationType, aliasedAttribute.getName(),
+                        this.sourceAnnotationType == aliasedAnnotationType);
+            }
+        }
+
         @SuppressWarnings("unchecked")
         private AliasDescriptor(Method sourceAttribute, MyAliasFor[] aliasFors) {
             Class<?> declaringClass = sourceAttribute.getDeclaringClass();
@@ -2206,7 +3207,15 @@ public abstract class MyAnnotationUtils {
             this.aliases = aliases.toArray(new Alias[0]);
         }
 
-        private void validate() {
+        /**
+         * Validate the aliases of this descriptor.
+         *
+         * @param checkMirrorDeclarations whether to check that the attributes
+         *                                of alias pairs declare each other
+         *                                via {@code @AliasFor}, which is not
+         *                                needed for indexed aliases
+         */
+        private void validate(boolean checkMirrorDeclarations) {
             for (Alias alias : this.aliases) {
                 // Target annotation is not meta-present?
                 if (!alias.isAliasPair && !isAnnotationMetaPresent(this.sourceAnnotationType, alias.aliasedAnnotationType)) {
@@ -2217,7 +3226,7 @@ public abstract class MyAnnotationUtils {
                     throw new AnnotationConfigurationException(msg);
                 }
 
-                if (alias.isAliasPair) {
+                if (alias.isAliasPair && checkMirrorDeclarations) {
                     MyAliasFor[] mirrorAliasFors = getAliasFors(alias.aliasedAttribute);
                     if (mirrorAliasFors == null) {
                         String msg = String.format("Attribute '%s' in annotation [%s] must be declared as an @AliasFor [%s].",
@@ -2287,7 +3296,7 @@ public abstract class MyAnnotationUtils {
          * Determine if this descriptor represents an explicit override for
          * an attribute in the supplied {@code metaAnnotationType}.
          *
-         * @see #isAliasFor
+         * @see #getAliasedAttributeHierarchy
          */
         private boolean isOverrideFor(Class<? extends Annotation> metaAnnotationType) {
             for (Alias alias : this.aliases) {
@@ -2299,70 +3308,34 @@ public abstract class MyAnnotationUtils {
         }
 
         /**
-         * Determine if this descriptor and the supplied descriptor both
-         * effectively represent aliases for the same attribute in the same
-         * target annotation, either explicitly or implicitly.
-         * <p>This method searches the attribute override hierarchy, beginning
-         * with this descriptor, in order to detect implicit and transitively
-         * implicit aliases.
+         * Collect the attributes aliased by this descriptor and, transitively,
+         * by the descriptors of the attributes it overrides. Two descriptors
+         * effectively alias the same annotation attribute, either explicitly
+         * or implicitly, if their hierarchies share an attribute.
          *
-         * @return {@code true} if this descriptor and the supplied descriptor
-         * effectively alias the same annotation attribute
-         * @see #isOverrideFor
+         * @see #computeAliasRoots
+         * @since 4.3.28
          */
-        private boolean isAliasFor(AliasDescriptor otherDescriptor) {
-            Queue<AliasDescriptor> lhs = new LinkedList<AliasDescriptor>();
-            lhs.offer(this);
-            while (!lhs.isEmpty()) {
-                AliasDescriptor lh = lhs.poll();
-                Queue<AliasDescriptor> rhs = new LinkedList<AliasDescriptor>();
-                rhs.offer(otherDescriptor);
-                while (!rhs.isEmpty()) {
-                    AliasDescriptor rh = rhs.poll();
-                    for (Alias lhAlias : lh.aliases) {
-                        for (Alias rhAlias : rh.aliases) {
-                            if (lhAlias.aliasedAttribute.equals(rhAlias.aliasedAttribute)) {
-                                return true;
-                            }
-                        }
-                    }
-                    rhs.addAll(rh.getAttributeOverrideDescriptor());
-                }
-                lhs.addAll(lh.getAttributeOverrideDescriptor());
-            }
-            return false;
-        }
-
-        public List<String> getAttributeAliasNames() {
-            // Explicit alias pair?
-            List<String> aliases = new ArrayList<String>();
-            for (Alias alias : this.aliases) {
-                if (alias.isAliasPair) {
-                    aliases.add(alias.aliasedAttributeName);
+        private Set<Method> getAliasedAttributeHierarchy() {
+            Set<Method> aliasedAttributes = new LinkedHashSet<Method>();
+            Set<AliasDescriptor> visited = new HashSet<AliasDescriptor>();
+            Deque<AliasDescriptor> queue = new ArrayDeque<AliasDescriptor>();
+            queue.add(this);
+            while (!queue.isEmpty()) {
+                AliasDescriptor desc = queue.removeFirst();
+                if (!visited.add(desc)) {
+                    continue;
                 }
-            }
-
-            // Else: search for implicit aliases
-            for (AliasDescriptor otherDescriptor : getOtherDescriptors()) {
-                if (this.isAliasFor(otherDescriptor)) {
-                    this.validateAgainst(otherDescriptor);
-                    aliases.add(otherDescriptor.sourceAttributeName);
+                for (Alias alias : desc.aliases) {
+                    aliasedAttributes.add(alias.aliasedAttribute);
                 }
-            }
-            return aliases;
-        }
-
-        private List<AliasDescriptor> getOtherDescriptors() {
-            List<AliasDescriptor> otherDescriptors = new ArrayList<AliasDescriptor>();
-            for (Method currentAttribute : getAttributeMethods(this.sourceAnnotationType)) {
-                if (!this.sourceAttribute.equals(currentAttribute)) {
-                    AliasDescriptor otherDescriptor = AliasDescriptor.from(currentAttribute);
-                    if (otherDescriptor != null) {
-                        otherDescriptors.add(otherDescriptor);
+                for (AliasDescriptor overridden : desc.getAttributeOverrideDescriptor()) {
+                    if (overridden != null) {
+                        queue.add(overridden);
                     }
                 }
             }
-            return otherDescriptors;
+            return aliasedAttributes;
         }
 
         public String[] getAttributeOverrideName(Class<? extends Annotation> metaAnnotationType) {
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * {@link AnnotationAttributes} that cannot be modified, so that merged
+ * attributes can be cached and shared between callers.
+ *
+ * <p>Nested {@code AnnotationAttributes}, also within arrays, are read-only
+ * as well; arrays themselves must not be modified. Callers that need to
+ * modify the attributes work on a copy, created through
+ * {@link AnnotationAttributes#AnnotationAttributes(AnnotationAttributes)}.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotatedElementUtils#getReadOnlyMergedAnnotationAttributes
+ * @see MyAnnotatedElementUtils#findReadOnlyMergedAnnotationAttributes
+ * @since 4.3.28
+ */
+@SuppressWarnings("serial")
+final class ReadOnlyAnnotationAttributes extends AnnotationAttributes {
+
+    private final Map<String, Object> view;
+
+    private transient volatile MapAnnotationAttributeExtractor attributeExtractor;
+
+
+    private ReadOnlyAnnotationAttributes(AnnotationAttributes attributes) {
+        super(attributes);
+        // Views are served from an unmodifiable copy, whose entries reject setValue
+        this.view = Collections.unmodifiableMap(new LinkedHashMap<String, Object>(attributes));
+    }
+
+
+    /**
+     * Return a read-only copy of the given attributes.
+     *
+     * @param attributes the attributes to copy, may be {@code null}
+     * @return the read-only attributes, or {@code null} if none were given
+     */
+    static AnnotationAttributes of(AnnotationAttributes attributes) {
+        if (attributes == null || attributes instanceof ReadOnlyAnnotationAttributes) {
+            return attributes;
+        }
+        AnnotationAttributes copy = new AnnotationAttributes(attributes);
+        for (Map.Entry<String, Object> entry : copy.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof AnnotationAttributes) {
+                entry.setValue(of((AnnotationAttributes) value));
+            } else if (value instanceof AnnotationAttributes[]) {
+                AnnotationAttributes[] nested = ((AnnotationAttributes[]) value).clone();
+                for (int i = 0; i < nested.length; i++) {
+                    nested[i] = of(nested[i]);
+                }
+                entry.setValue(nested);
+            }
+        }
+        return new ReadOnlyAnnotationAttributes(copy);
+    }
+
+
+    /**
+     * Return an extractor synthesizing annotations from these attributes.
+     * <p>The attributes cannot change, so the extractor, which copies and
+     * validates them, is reused as long as it is requested for the same
+     * annotation type and element.
+     *
+     * @param annotationType   the type of annotation to synthesize
+     * @param annotatedElement the element that is annotated with the annotation
+     * @return the attribute extractor
+     */
+    MapAnnotationAttributeExtractor getAttributeExtractor(Class<? extends Annotation> annotationType,
+                                                          AnnotatedElement annotatedElement) {
+        MapAnnotationAttributeExtractor extractor = this.attributeExtractor;
+        if (extractor == null || extractor.getAnnotationType() != annotationType ||
+                extractor.getAnnotatedElement() != annotatedElement) {
+            extractor = new MapAnnotationAttributeExtractor(this, annotationType, annotatedElement);
+            this.attributeExtractor = extractor;
+        }
+        return extractor;
+    }
+
+
+    @Override
+    public Object put(String key, Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw readOnly();
+    }
+
+    @Override
+    public void clear() {
+        throw readOnly();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return this.view.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return this.view.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return this.view.entrySet();
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Read-only attributes of " + annotationType() +
+                "; copy them through new AnnotationAttributes(attributes) to modify them");
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-capped {@link AnnotationCache} with a segmented LRU eviction policy.
+ *
+ * <p>New entries start in a <em>probation</em> segment and are promoted to a
+ * <em>protected</em> segment when they are hit again, so entries that are
+ * looked up repeatedly survive a scan of one-off keys. When the protected
+ * segment is full, its least recently used entry is demoted back to probation;
+ * evictions always take the least recently used probationary entry first.
+ *
+ * <p>Keys are spread over independently locked stripes, each of which enforces
+ * its share of the maximum size.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Zicheng Zhang
+ * @see SoftReferenceAnnotationCache
+ * @since 4.3.28
+ */
+public class SegmentedLruAnnotationCache<K, V> implements AnnotationCache<K, V> {
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private static final float PROTECTED_RATIO = 0.8f;
+
+
+    private final int maximumSize;
+
+    private final Segment<K, V>[] segments;
+
+    private final int mask;
+
+    private final LongAdder evictionCount = new LongAdder();
+
+
+    /**
+     * Create a new {@code SegmentedLruAnnotationCache} with a default concurrency level.
+     *
+     * @param maximumSize the maximum number of entries
+     */
+    public SegmentedLruAnnotationCache(int maximumSize) {
+        this(maximumSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Create a new {@code SegmentedLruAnnotationCache}.
+     *
+     * @param maximumSize      the maximum number of entries
+     * @param concurrencyLevel the expected number of concurrently updating
+     *                         threads, rounded up to a power of two and
+     *                         capped so that each stripe holds at least one entry
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedLruAnnotationCache(int maximumSize, int concurrencyLevel) {
+        Assert.isTrue(maximumSize > 0, "Maximum size must be positive");
+        Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be positive");
+        int size = 1;
+        while (size < concurrencyLevel && size * 2 <= maximumSize) {
+            size <<= 1;
+        }
+        this.maximumSize = maximumSize;
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[size];
+        this.mask = size - 1;
+        int remainder = maximumSize % size;
+        for (int i = 0; i < size; i++) {
+            this.segments[i] = new Segment<K, V>(maximumSize / size + (i < remainder ? 1 : 0), this.evictionCount);
+        }
+    }
+
+
+    /**
+     * Return the maximum number of entries this cache holds.
+     */
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    @Override
+    public V get(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (value != null) {
+            segmentFor(key).put(key, value);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = (key != null ? key.hashCode() : 0);
+        hash ^= (hash >>> 16);
+        return this.segments[hash & this.mask];
+    }
+
+
+    /**
+     * A single lock stripe holding the probation and protected segments
+     * for a subset of the keys.
+     */
+    private static final class Segment<K, V> {
+
+        private final int capacity;
+
+        private final int protectedCapacity;
+
+        private final LinkedHashMap<K, V> probation = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+        private final LinkedHashMap<K, V> protectedEntries = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+        private final LongAdder evictionCount;
+
+        Segment(int capacity, LongAdder evictionCount) {
+            this.capacity = capacity;
+            this.protectedCapacity = (int) (capacity * PROTECTED_RATIO);
+            this.evictionCount = evictionCount;
+        }
+
+        synchronized V get(K key) {
+            V value = this.protectedEntries.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = this.probation.remove(key);
+            if (value != null) {
+                if (this.protectedCapacity == 0) {
+                    this.probation.put(key, value);
+                } else {
+                    this.protectedEntries.put(key, value);
+                    if (this.protectedEntries.size() > this.protectedCapacity) {
+                        Map.Entry<K, V> eldest = removeEldest(this.protectedEntries);
+                        this.probation.put(eldest.getKey(), eldest.getValue());
+                    }
+                }
+            }
+            return value;
+        }
+
+        synchronized void put(K key, V value) {
+            if (this.protectedEntries.containsKey(key)) {
+                this.protectedEntries.put(key, value);
+                return;
+            }
+            this.probation.put(key, value);
+            while (this.probation.size() + this.protectedEntries.size() > this.capacity) {
+                removeEldest(this.probation.isEmpty() ? this.protectedEntries : this.probation);
+                this.evictionCount.increment();
+            }
+        }
+
+        synchronized void clear() {
+            this.probation.clear();
+            this.protectedEntries.clear();
+        }
+
+        synchronized int size() {
+            return this.probation.size() + this.protectedEntries.size();
+        }
+
+        private static <K, V> Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> entries) {
+            Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+            Map.Entry<K, V> eldest = iterator.next();
+            iterator.remove();
+            return eldest;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Unbounded {@link AnnotationCache} backed by a {@link ConcurrentReferenceHashMap}
+ * with soft references, which is the default for all caches in
+ * {@link MyAnnotationUtils}.
+ *
+ * <p>Entries are only released by the garbage collector, which tends to
+ * clear soft references in bulk under memory pressure. Each released entry
+ * counts as an eviction.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Zicheng Zhang
+ * @see SegmentedLruAnnotationCache
+ * @since 4.3.28
+ */
+public class SoftReferenceAnnotationCache<K, V> implements AnnotationCache<K, V> {
+
+    private final ConcurrentReferenceHashMap<K, V> map;
+
+    private final LongAdder evictionCount = new LongAdder();
+
+
+    /**
+     * Create a new {@code SoftReferenceAnnotationCache} with a default initial capacity.
+     */
+    public SoftReferenceAnnotationCache() {
+        this(256);
+    }
+
+    /**
+     * Create a new {@code SoftReferenceAnnotationCache}.
+     *
+     * @param initialCapacity the initial capacity of the backing map
+     */
+    public SoftReferenceAnnotationCache(int initialCapacity) {
+        this.map = new ConcurrentReferenceHashMap<K, V>(initialCapacity) {
+            @Override
+            protected ReferenceManager createReferenceManager() {
+                return new ReferenceManager() {
+                    @Override
+                    public Reference<K, V> pollForPurge() {
+                        Reference<K, V> reference = super.pollForPurge();
+                        if (reference != null) {
+                            evictionCount.increment();
+                        }
+                        return reference;
+                    }
+                };
+            }
+        };
+    }
+
+
+    @Override
+    public V get(K key) {
+        return this.map.get(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (value != null) {
+            this.map.put(key, value);
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.map.clear();
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates, and caches per annotation type, a concrete class that implements
+ * the annotation together with {@link SynthesizedAnnotation}, as an alternative
+ * to the JDK dynamic proxies created by {@link MyAnnotationUtils}.
+ *
+ * <p>Attribute values are resolved once from the supplied
+ * {@link AnnotationAttributeExtractor} and stored in final fields, and
+ * {@code hashCode()} and {@code toString()} are computed up front. An attribute
+ * read is therefore a plain field load, plus a clone for array values.
+ *
+ * <p>Annotation types that are not public, that are loaded by the bootstrap
+ * class loader, or whose class loader does not see the same
+ * {@link SynthesizedAnnotation} marker are not supported: {@link #synthesize}
+ * returns {@code null} for those and the caller falls back to a proxy.
+ *
+ * @author Zicheng Zhang
+ * @see MyAnnotationUtils#setGeneratedSynthesis(boolean)
+ * @since 4.3.28
+ */
+final class SynthesizedAnnotationClassGenerator {
+
+    private static final String CLASS_NAME_SUFFIX = "$$MySynthesized";
+
+    private static final String HASH_CODE_FIELD = "hashCode";
+
+    private static final String TO_STRING_FIELD = "toString";
+
+    private static final String CONSTRUCTOR_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Object[].class), Type.INT_TYPE, Type.getType(String.class));
+
+    private static final Object UNSUPPORTED = new Object();
+
+    private static final Map<Class<? extends Annotation>, Object> generatedClassCache =
+            new ConcurrentReferenceHashMap<Class<? extends Annotation>, Object>(64);
+
+
+    private SynthesizedAnnotationClassGenerator() {
+    }
+
+
+    /**
+     * Create an instance of the generated class for the annotation type of the
+     * supplied extractor.
+     *
+     * @param attributeExtractor the source of the attribute values
+     * @return the synthesized annotation, or {@code null} if no class can be
+     * generated for the annotation type
+     */
+    @SuppressWarnings("unchecked")
+    static <A extends Annotation> A synthesize(AnnotationAttributeExtractor<?> attributeExtractor) {
+        GeneratedClass generatedClass = getGeneratedClass(attributeExtractor.getAnnotationType());
+        return (generatedClass != null ? (A) generatedClass.newInstance(attributeExtractor) : null);
+    }
+
+    /**
+     * Clear the cache of generated classes.
+     */
+    static void clearCache() {
+        generatedClassCache.clear();
+    }
+
+    private static GeneratedClass getGeneratedClass(Class<? extends Annotation> annotationType) {
+        Object generatedClass = generatedClassCache.get(annotationType);
+        if (generatedClass == null) {
+            generatedClass = generate(annotationType);
+            generatedClassCache.put(annotationType, generatedClass);
+        }
+        return (generatedClass != UNSUPPORTED ? (GeneratedClass) generatedClass : null);
+    }
+
+    private static Object generate(Class<? extends Annotation> annotationType) {
+        ClassLoader classLoader = annotationType.getClassLoader();
+        if (classLoader == null || !Modifier.isPublic(annotationType.getModifiers()) ||
+                !MyAnnotationUtils.canExposeSynthesizedMarker(annotationType)) {
+            return UNSUPPORTED;
+        }
+
+        List<Method> attributeMethods = MyAnnotationUtils.getAttributeMethods(annotationType);
+        String className = annotationType.getName() + CLASS_NAME_SUFFIX;
+        try {
+            byte[] bytes = generateClass(className.replace('.', '/'), annotationType, attributeMethods);
+            Class<?> clazz = new GeneratedClassLoader(classLoader).defineClass(className, bytes);
+            Constructor<?> constructor = clazz.getConstructor(Object[].class, int.class, String.class);
+            return new GeneratedClass(annotationType, attributeMethods, constructor);
+        } catch (Throwable ex) {
+            // e.g. IllegalAccessError for an annotation type in a non-exported package
+            return UNSUPPORTED;
+        }
+    }
+
+    private static byte[] generateClass(String internalName, Class<? extends Annotation> annotationType,
+                                        List<Method> attributeMethods) {
+
+        String annotationName = Type.getInternalName(annotationType);
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Only needed for frames merging different reference types, which never happens here
+                return "java/lang/Object";
+            }
+        };
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internalName, null,
+                "java/lang/Object", new String[]{annotationName, Type.getInternalName(SynthesizedAnnotation.class)});
+
+        for (int i = 0; i < attributeMethods.size(); i++) {
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, fieldName(i),
+                    Type.getDescriptor(attributeMethods.get(i).getReturnType()), null, null).visitEnd();
+        }
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, HASH_CODE_FIELD, "I", null, null).visitEnd();
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, TO_STRING_FIELD, "Ljava/lang/String;", null, null).visitEnd();
+
+        // constructor: unbox or cast each resolved value into its field
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        for (int i = 0; i < attributeMethods.size(); i++) {
+            Type type = Type.getType(attributeMethods.get(i).getReturnType());
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            pushInt(mv, i);
+            mv.visitInsn(Opcodes.AALOAD);
+            unboxOrCast(mv, type);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, fieldName(i), type.getDescriptor());
+        }
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ILOAD, 2);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, HASH_CODE_FIELD, "I");
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, TO_STRING_FIELD, "Ljava/lang/String;");
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // attribute methods: return the field, cloning arrays so that the stored value cannot be altered
+        for (int i = 0; i < attributeMethods.size(); i++) {
+            Method attributeMethod = attributeMethods.get(i);
+            Type type = Type.getType(attributeMethod.getReturnType());
+            mv = cw.visitMethod(Opcodes.ACC_PUBLIC, attributeMethod.getName(),
+                    Type.getMethodDescriptor(attributeMethod), null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, internalName, fieldName(i), type.getDescriptor());
+            if (type.getSort() == Type.ARRAY) {
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.getDescriptor(), "clone", "()Ljava/lang/Object;", false);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, type.getDescriptor());
+            }
+            mv.visitInsn(type.getOpcode(Opcodes.IRETURN));
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "annotationType", "()Ljava/lang/Class;", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(Type.getType(annotationType));
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "hashCode", "()I", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalName, HASH_CODE_FIELD, "I");
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "toString", "()Ljava/lang/String;", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalName, TO_STRING_FIELD, "Ljava/lang/String;");
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        generateEquals(cw, internalName, annotationName, attributeMethods);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Generate {@code equals(Object)} following the {@link Annotation#equals}
+     * contract: primitive attributes are compared directly ({@code float} and
+     * {@code double} via {@code Float.compare}/{@code Double.compare}), all
+     * others through {@link ObjectUtils#nullSafeEquals}, which also covers arrays.
+     */
+    private static void generateEquals(ClassWriter cw, String internalName, String annotationName,
+                                       List<Method> attributeMethods) {
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "equals", "(Ljava/lang/Object;)Z", null, null);
+        mv.visitCode();
+        Label notSame = new Label();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitJumpInsn(Opcodes.IF_ACMPNE, notSame);
+        mv.visitInsn(Opcodes.ICONST_1);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitLabel(notSame);
+        Label sameType = new Label();
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.INSTANCEOF, annotationName);
+        mv.visitJumpInsn(Opcodes.IFNE, sameType);
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitLabel(sameType);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, annotationName);
+        mv.visitVarInsn(Opcodes.ASTORE, 2);
+
+        Label notEqual = new Label();
+        for (int i = 0; i < attributeMethods.size(); i++) {
+            Method attributeMethod = attributeMethods.get(i);
+            Type type = Type.getType(attributeMethod.getReturnType());
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, internalName, fieldName(i), type.getDescriptor());
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, annotationName, attributeMethod.getName(),
+                    Type.getMethodDescriptor(attributeMethod), true);
+            switch (type.getSort()) {
+                case Type.BOOLEAN:
+                case Type.CHAR:
+                case Type.BYTE:
+                case Type.SHORT:
+                case Type.INT:
+                    mv.visitJumpInsn(Opcodes.IF_ICMPNE, notEqual);
+                    break;
+                case Type.LONG:
+                    mv.visitInsn(Opcodes.LCMP);
+                    mv.visitJumpInsn(Opcodes.IFNE, notEqual);
+                    break;
+                case Type.FLOAT:
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Float", "compare", "(FF)I", false);
+                    mv.visitJumpInsn(Opcodes.IFNE, notEqual);
+                    break;
+                case Type.DOUBLE:
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", false);
+                    mv.visitJumpInsn(Opcodes.IFNE, notEqual);
+                    break;
+                default:
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(ObjectUtils.class),
+                            "nullSafeEquals", "(Ljava/lang/Object;Ljava/lang/Object;)Z", false);
+                    mv.visitJumpInsn(Opcodes.IFEQ, notEqual);
+            }
+        }
+        mv.visitInsn(Opcodes.ICONST_1);
+        mv.visitInsn(Opcodes.IRETURN);
+        if (!attributeMethods.isEmpty()) {
+            mv.visitLabel(notEqual);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void unboxOrCast(MethodVisitor mv, Type type) {
+        String wrapper;
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                wrapper = "java/lang/Boolean";
+                break;
+            case Type.CHAR:
+                wrapper = "java/lang/Character";
+                break;
+            case Type.BYTE:
+                wrapper = "java/lang/Byte";
+                break;
+            case Type.SHORT:
+                wrapper = "java/lang/Short";
+                break;
+            case Type.INT:
+                wrapper = "java/lang/Integer";
+                break;
+            case Type.FLOAT:
+                wrapper = "java/lang/Float";
+                break;
+            case Type.LONG:
+                wrapper = "java/lang/Long";
+                break;
+            case Type.DOUBLE:
+                wrapper = "java/lang/Double";
+                break;
+            default:
+                mv.visitTypeInsn(Opcodes.CHECKCAST, type.getSort() == Type.ARRAY ?
+                        type.getDescriptor() : type.getInternalName());
+                return;
+        }
+        mv.visitTypeInsn(Opcodes.CHECKCAST, wrapper);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapper, type.getClassName() + "Value",
+                "()" + type.getDescriptor(), false);
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+
+    private static String fieldName(int attributeIndex) {
+        return "attribute" + attributeIndex;
+    }
+
+
+    /**
+     * A generated class together with the attribute methods in the order in
+     * which its constructor expects their values.
+     */
+    private static final class GeneratedClass {
+
+        private final Class<? extends Annotation> annotationType;
+
+        private final List<Method> attributeMethods;
+
+        private final Constructor<?> constructor;
+
+        GeneratedClass(Class<? extends Annotation> annotationType, List<Method> attributeMethods,
+                       Constructor<?> constructor) {
+
+            this.annotationType = annotationType;
+            this.attributeMethods = attributeMethods;
+            this.constructor = constructor;
+        }
+
+        /**
+         * Resolve all attribute values up front, applying the same nested
+         * annotation synthesis as {@code SynthesizedAnnotationInvocationHandler},
+         * and compute {@code hashCode()} and {@code toString()} from them.
+         */
+        Object newInstance(AnnotationAttributeExtractor<?> attributeExtractor) {
+            Object[] values = new Object[this.attributeMethods.size()];
+            int hashCode = 0;
+            StringBuilder sb = new StringBuilder("@").append(this.annotationType.getName()).append("(");
+            for (int i = 0; i < values.length; i++) {
+                Method attributeMethod = this.attributeMethods.get(i);
+                Object value = getAttributeValue(attributeExtractor, attributeMethod);
+                values[i] = value;
+                hashCode += (127 * attributeMethod.getName().hashCode()) ^ hashCodeForValue(value);
+                sb.append(attributeMethod.getName()).append('=').append(attributeValueToString(value));
+                sb.append(i < values.length - 1 ? ", " : "");
+            }
+            String toString = sb.append(")").toString();
+
+            try {
+                return this.constructor.newInstance(values, hashCode, toString);
+            } catch (Exception ex) {
+                ReflectionUtils.handleReflectionException(ex);
+                throw new IllegalStateException("Should never get here");
+            }
+        }
+
+        private Object getAttributeValue(AnnotationAttributeExtractor<?> attributeExtractor, Method attributeMethod) {
+            Object value = attributeExtractor.getAttributeValue(attributeMethod);
+            if (value == null) {
+                String msg = String.format("%s returned null for attribute name [%s] from attribute source [%s]",
+                        attributeExtractor.getClass().getName(), attributeMethod.getName(), attributeExtractor.getSource());
+                throw new IllegalStateException(msg);
+            }
+
+            // Synthesize nested annotations before storing them.
+            if (value instanceof Annotation) {
+                value = MyAnnotationUtils.synthesizeAnnotation((Annotation) value, attributeExtractor.getAnnotatedElement());
+            } else if (value instanceof Annotation[]) {
+                value = MyAnnotationUtils.synthesizeAnnotationArray((Annotation[]) value, attributeExtractor.getAnnotatedElement());
+            }
+
+            // Copy arrays so that the source cannot alter the stored value (or its precomputed hash code).
+            if (value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+                System.arraycopy(value, 0, copy, 0, length);
+                value = copy;
+            }
+            return value;
+        }
+
+        private static int hashCodeForValue(Object value) {
+            if (value instanceof boolean[]) {
+                return Arrays.hashCode((boolean[]) value);
+            }
+            if (value instanceof byte[]) {
+                return Arrays.hashCode((byte[]) value);
+            }
+            if (value instanceof char[]) {
+                return Arrays.hashCode((char[]) value);
+            }
+            if (value instanceof double[]) {
+                return Arrays.hashCode((double[]) value);
+            }
+            if (value instanceof float[]) {
+                return Arrays.hashCode((float[]) value);
+            }
+            if (value instanceof int[]) {
+                return Arrays.hashCode((int[]) value);
+            }
+            if (value instanceof long[]) {
+                return Arrays.hashCode((long[]) value);
+            }
+            if (value instanceof short[]) {
+                return Arrays.hashCode((short[]) value);
+            }
+            if (value instanceof Object[]) {
+                return Arrays.hashCode((Object[]) value);
+            }
+            return value.hashCode();
+        }
+
+        private static String attributeValueToString(Object value) {
+            if (value instanceof Object[]) {
+                return "[" + StringUtils.arrayToDelimitedString((Object[]) value, ", ") + "]";
+            }
+            return String.valueOf(value);
+        }
+    }
+
+
+    /**
+     * Child of the annotation's class loader that defines one generated class.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> defineClass(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.springframework.core.annotation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AnnotationCacheStatistics}.
+ *
+ * @author Zicheng Zhang
+ */
+public class AnnotationCacheStatisticsTests {
+
+    @After
+    public void unregisterMBeans() {
+        AnnotationCacheStatistics.unregisterMBeans();
+    }
+
+    @Test
+    public void statisticsExistForEveryCache() {
+        for (String cacheName : MyAnnotationUtils.getCacheNames()) {
+            assertNotNull(cacheName, AnnotationCacheStatistics.get(cacheName));
+        }
+    }
+
+    @Test
+    public void hitsAndMissesAreRecorded() {
+        MyAnnotationUtils.clearCache();
+        AnnotationCacheStatistics statistics = AnnotationCacheStatistics.get(MyAnnotationUtils.FIND_ANNOTATION_CACHE);
+        statistics.reset();
+
+        assertNotNull(MyAnnotationUtils.findAnnotation(AlisforsTests.Element1.class, AlisforsTests.Test1.class));
+        assertNotNull(MyAnnotationUtils.findAnnotation(AlisforsTests.Element1.class, AlisforsTests.Test1.class));
+
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getLoadCount());
+        assertTrue(statistics.getTotalLoadTime() > 0);
+        assertEquals(0.5, statistics.getHitRatio(), 0.0);
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void findAnnotationHitsReplacedCache() {
+        MyAnnotationUtils.setCacheLimit(MyAnnotationUtils.FIND_ANNOTATION_CACHE, 16);
+        try {
+            AnnotationCacheStatistics statistics = AnnotationCacheStatistics.get(MyAnnotationUtils.FIND_ANNOTATION_CACHE);
+            statistics.reset();
+            AlisforsTests.Test1 annotation =
+                    MyAnnotationUtils.findAnnotation(AlisforsTests.Element1.class, AlisforsTests.Test1.class);
+            assertSame(annotation, MyAnnotationUtils.findAnnotation(AlisforsTests.Element1.class, AlisforsTests.Test1.class));
+            assertEquals(1, statistics.getHitCount());
+            assertEquals(1, statistics.getSize());
+        } finally {
+            MyAnnotationUtils.setCache(MyAnnotationUtils.FIND_ANNOTATION_CACHE, null);
+        }
+    }
+
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+        MyAnnotationUtils.clearCache();
+        AnnotationCacheStatistics statistics = AnnotationCacheStatistics.get(MyAnnotationUtils.ATTRIBUTE_METHODS_CACHE);
+        statistics.reset();
+
+        int threadCount = 8;
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<List<Method>>> futures = new ArrayList<Future<List<Method>>>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(new Callable<List<Method>>() {
+                    @Override
+                    public List<Method> call() throws Exception {
+                        barrier.await();
+                        return MyAnnotationUtils.getAttributeMethods(AlisforsTests.Test3.class);
+                    }
+                }));
+            }
+            List<Method> first = futures.get(0).get();
+            for (Future<List<Method>> future : futures) {
+                assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, statistics.getLoadCount());
+    }
+
+    @Test
+    public void perTypeMetadataIsClearedWithCaches() {
+        MyAnnotationUtils.clearCache();
+        AnnotationCacheStatistics statistics = AnnotationCacheStatistics.get(MyAnnotationUtils.ATTRIBUTE_METHODS_CACHE);
+        List<Method> methods = MyAnnotationUtils.getAttributeMethods(AlisforsTests.Test3.class);
+        assertSame(methods, MyAnnotationUtils.getAttributeMethods(AlisforsTests.Test3.class));
+        assertEquals(1, statistics.getSize());
+
+        MyAnnotationUtils.clearCache();
+        assertEquals(0, statistics.getSize());
+        assertNotSame(methods, MyAnnotationUtils.getAttributeMethods(AlisforsTests.Test3.class));
+    }
+
+    @Test
+    public void evictionsAreRecorded() {
+        MyAnnotationUtils.setCacheLimit(MyAnnotationUtils.ATTRIBUTE_METHODS_CACHE, 1);
+        try {
+            AnnotationCacheStatistics statistics =
+                    AnnotationCacheStatistics.get(MyAnnotationUtils.ATTRIBUTE_METHODS_CACHE);
+            statistics.reset();
+            MyAnnotationUtils.getAttributeMethods(AlisforsTests.Test1.class);
+            MyAnnotationUtils.getAttributeMethods(AlisforsTests.Test2.class);
+            assertEquals(1, statistics.getEvictionCount());
+        } finally {
+            MyAnnotationUtils.setCache(MyAnnotationUtils.ATTRIBUTE_METHODS_CACHE, null);
+        }
+    }
+
+    @Test
+    public void registerMBeans() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        AnnotationCacheStatistics.registerMBeans(server);
+        AnnotationCacheStatistics statistics = AnnotationCacheStatistics.get(MyAnnotationUtils.META_PRESENT_CACHE);
+        assertTrue(server.isRegistered(statistics.getObjectName()));
+        assertEquals(statistics.getHitCount(), server.getAttribute(statistics.getObjectName(), "HitCount"));
+
+        AnnotationCacheStatistics.unregisterMBeans();
+        assertTrue(!server.isRegistered(statistics.getObjectName()));
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the presence checks of {@link MyAnnotatedElementUtils} backed by
+ * {@link AnnotationPresence}.
+ *
+ * @author Zicheng Zhang
+ */
+public class AnnotationPresenceTests {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Meta {
+    }
+
+    @Meta
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Composed {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Unused {
+    }
+
+    @Composed
+    static class Annotated {
+    }
+
+    @Meta
+    static class DirectlyAnnotated {
+    }
+
+    @Test
+    public void presenceFollowsGetSemantics() {
+        assertTrue(MyAnnotatedElementUtils.isAnnotated(Annotated.class, Composed.class));
+        assertTrue(MyAnnotatedElementUtils.isAnnotated(Annotated.class, Meta.class));
+        assertTrue(MyAnnotatedElementUtils.isAnnotated(Annotated.class, Meta.class.getName()));
+        assertFalse(MyAnnotatedElementUtils.isAnnotated(Annotated.class, Unused.class));
+        assertFalse(MyAnnotatedElementUtils.isAnnotated(Annotated.class, "com.example.Unknown"));
+    }
+
+    @Test
+    public void typeIdSetsStaySortedAndDistinct() {
+        int[] ids = AnnotationTypeIds.EMPTY_IDS;
+        for (int id : new int[]{42, 7, 1000000, 7, 0}) {
+            ids = AnnotationTypeIds.add(ids, id);
+        }
+        assertTrue(Arrays.equals(new int[]{0, 7, 42, 1000000}, ids));
+        assertSame(ids, AnnotationTypeIds.add(ids, 42));
+        assertTrue(AnnotationTypeIds.contains(ids, 1000000));
+        assertFalse(AnnotationTypeIds.contains(ids, 8));
+        assertFalse(AnnotationTypeIds.contains(ids, -1));
+    }
+
+    @Test
+    public void metaPresenceExcludesDirectAnnotations() {
+        assertTrue(MyAnnotatedElementUtils.hasMetaAnnotationTypes(Annotated.class, Meta.class));
+        assertTrue(MyAnnotatedElementUtils.hasMetaAnnotationTypes(Annotated.class, Meta.class.getName()));
+        assertFalse(MyAnnotatedElementUtils.hasMetaAnnotationTypes(Annotated.class, Composed.class));
+        assertFalse(MyAnnotatedElementUtils.hasMetaAnnotationTypes(DirectlyAnnotated.class, Meta.class));
+    }
+
+    @Test
+    public void metaAnnotationTypeNamesAreCached() {
+        assertEquals(new HashSet<String>(Arrays.asList(Meta.class.getName())),
+                MyAnnotatedElementUtils.getMetaAnnotationTypes(Annotated.class, Composed.class));
+        assertSame(MyAnnotatedElementUtils.getMetaAnnotationTypes(Annotated.class, Composed.class),
+                MyAnnotatedElementUtils.getMetaAnnotationTypes(Annotated.class, Composed.class));
+        assertNull(MyAnnotatedElementUtils.getMetaAnnotationTypes(DirectlyAnnotated.class, Meta.class));
+    }
+
+}
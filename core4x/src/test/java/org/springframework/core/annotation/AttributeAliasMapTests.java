@@ -0,0 +1,136 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link MyAnnotationUtils#getAttributeAliasMap}.
+ *
+ * @author Zicheng Zhang
+ */
+public class AttributeAliasMapTests {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Base {
+        String value() default "";
+    }
+
+    @Base
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Composed {
+        @MyAliasFor(annotation = Base.class, attribute = "value")
+        String first() default "";
+
+        @MyAliasFor(annotation = Base.class, attribute = "value")
+        String second() default "";
+
+        @MyAliasFor(annotation = Base.class, attribute = "value")
+        String third() default "";
+
+        @MyAliasFor("right")
+        String left() default "";
+
+        @MyAliasFor("left")
+        String right() default "";
+
+        String plain() default "";
+    }
+
+    @Composed
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Outer {
+        @MyAliasFor(annotation = Composed.class, attribute = "first")
+        String one() default "";
+
+        @MyAliasFor(annotation = Composed.class, attribute = "second")
+        String two() default "";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface OtherBase {
+        String value() default "";
+    }
+
+    @Base
+    @OtherBase
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Chain {
+        @MyAliasFor(annotation = Base.class, attribute = "value")
+        String first() default "";
+
+        @MyAliasFor(annotation = Base.class, attribute = "value")
+        @MyAliasFor(annotation = OtherBase.class, attribute = "value")
+        String link() default "";
+
+        @MyAliasFor(annotation = OtherBase.class, attribute = "value")
+        String last() default "";
+    }
+
+    @Base
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface MismatchedDefaults {
+        @MyAliasFor(annotation = Base.class, attribute = "value")
+        String first() default "a";
+
+        @MyAliasFor(annotation = Base.class, attribute = "value")
+        String second() default "b";
+    }
+
+    @Test
+    public void explicitPairsAndImplicitClasses() {
+        Map<String, List<String>> map = MyAnnotationUtils.getAttributeAliasMap(Composed.class);
+        assertEquals(5, map.size());
+        assertEquals(setOf("second", "third"), new HashSet<String>(map.get("first")));
+        assertEquals(setOf("first", "third"), new HashSet<String>(map.get("second")));
+        assertEquals(setOf("first", "second"), new HashSet<String>(map.get("third")));
+        assertEquals(Collections.singletonList("right"), map.get("left"));
+        assertEquals(Collections.singletonList("left"), map.get("right"));
+    }
+
+    @Test
+    public void transitivelyImplicitAliases() throws Exception {
+        assertEquals(Collections.singletonList("two"),
+                MyAnnotationUtils.getAttributeAliasNames(Outer.class.getDeclaredMethod("one")));
+        assertEquals(Collections.singletonList("one"),
+                MyAnnotationUtils.getAttributeAliasNames(Outer.class.getDeclaredMethod("two")));
+        assertEquals(Collections.emptyList(),
+                MyAnnotationUtils.getAttributeAliasNames(Composed.class.getDeclaredMethod("plain")));
+    }
+
+    /**
+     * {@code first} and {@code last} alias different attributes, but both
+     * are linked through {@code link}.
+     */
+    @Test
+    public void implicitAliasesAreTransitive() {
+        Map<String, List<String>> map = MyAnnotationUtils.getAttributeAliasMap(Chain.class);
+        assertEquals(3, map.size());
+        assertEquals(setOf("link", "last"), new HashSet<String>(map.get("first")));
+        assertEquals(setOf("first", "last"), new HashSet<String>(map.get("link")));
+        assertEquals(setOf("first", "link"), new HashSet<String>(map.get("last")));
+    }
+
+    /**
+     * The processor does not compare the defaults of implicit aliases, so
+     * this must still be rejected at runtime when the type is indexed.
+     */
+    @Test(expected = AnnotationConfigurationException.class)
+    public void implicitAliasesMustDeclareSameDefaultValue() {
+        MyAnnotationUtils.getAttributeAliasMap(MismatchedDefaults.class);
+    }
+
+    private static Set<String> setOf(String... values) {
+        return new HashSet<String>(Arrays.asList(values));
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link AttributeOverrides}.
+ *
+ * @author Zicheng Zhang
+ */
+public class AttributeOverridesTests {
+
+    @Test
+    public void resolvesOverrideWithTargetAliases() {
+        AttributeOverrides overrides = AttributeOverrides.resolve(Composed.class, Target.class);
+        assertEquals(1, overrides.size());
+        assertEquals("path", overrides.getSourceName(0));
+        assertEquals(new HashSet<String>(Arrays.asList("name", "value")),
+                new HashSet<String>(Arrays.asList(overrides.getTargetNames(0))));
+    }
+
+    @Test
+    public void resolvesNothingForUnrelatedTypes() {
+        assertEquals(0, AttributeOverrides.resolve(Composed.class, Retention.class).size());
+    }
+
+    @Test
+    public void resolvedOncePerPairOfTypes() {
+        assertSame(MyAnnotationUtils.getAttributeOverrides(Composed.class, Target.class),
+                MyAnnotationUtils.getAttributeOverrides(Composed.class, Target.class));
+    }
+
+    @Test
+    public void mergedAttributesAreOverridden() {
+        Target target = MyAnnotatedElementUtils.findMergedAnnotation(Annotated.class, Target.class);
+        assertEquals("/path", target.name());
+        assertEquals("/path", target.value());
+    }
+
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Target {
+
+        @MyAliasFor("name")
+        String value() default "";
+
+        @MyAliasFor("value")
+        String name() default "";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target
+    @interface Composed {
+
+        @MyAliasFor(annotation = Target.class, attribute = "name")
+        String path() default "";
+    }
+
+    @Composed(path = "/path")
+    static class Annotated {
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the loading of {@link MyAnnotationUtils.ConfigurableAnnotationCache}.
+ *
+ * @author Zicheng Zhang
+ */
+public class ConfigurableAnnotationCacheTests {
+
+    @CyclicB
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface CyclicA {
+    }
+
+    @CyclicA
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface CyclicB {
+    }
+
+    @Test
+    public void concurrentLoadsOfCyclicAnnotationTypesDoNotDeadlock() throws Exception {
+        MyAnnotationUtils.ConfigurableAnnotationCache<Class<?>, Set<String>> cache =
+                new MyAnnotationUtils.ConfigurableAnnotationCache<Class<?>, Set<String>>("cyclicLoadTestCache",
+                        new SegmentedLruAnnotationCache<Class<?>, Set<String>>(16));
+        MetaAnnotationNamesLoader loader = new MetaAnnotationNamesLoader(cache);
+        FutureTask<Set<String>> loadA = load(cache, loader, CyclicA.class);
+        FutureTask<Set<String>> loadB = load(cache, loader, CyclicB.class);
+
+        Set<String> expected = new HashSet<String>(Arrays.asList(CyclicA.class.getName(), CyclicB.class.getName()));
+        assertEquals(expected, loadA.get(10, TimeUnit.SECONDS));
+        assertEquals(expected, loadB.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void valuesComputedAcrossClearAreNotCached() {
+        final MyAnnotationUtils.ConfigurableAnnotationCache<Class<?>, String> cache =
+                new MyAnnotationUtils.ConfigurableAnnotationCache<Class<?>, String>("clearedLoadTestCache",
+                        AnnotationTypeMetadata.<Class<?>, String>createCache(MyAnnotationUtils.ATTRIBUTE_METHODS_CACHE));
+        String value = cache.get(CyclicA.class, new MyAnnotationUtils.CacheLoader<Class<?>, String>() {
+            @Override
+            public String load(Class<?> key) {
+                cache.clear();
+                return key.getName();
+            }
+        });
+        assertEquals(CyclicA.class.getName(), value);
+        assertNull(cache.get(CyclicA.class));
+    }
+
+    private static FutureTask<Set<String>> load(final MyAnnotationUtils.ConfigurableAnnotationCache<Class<?>, Set<String>> cache,
+                                                final MetaAnnotationNamesLoader loader, final Class<?> type) {
+        FutureTask<Set<String>> task = new FutureTask<Set<String>>(new Callable<Set<String>>() {
+            @Override
+            public Set<String> call() {
+                return cache.get(type, loader);
+            }
+        });
+        Thread thread = new Thread(task, "load-" + type.getSimpleName());
+        // a deadlocked thread must not keep the test JVM alive
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+
+    /**
+     * Collects the names of all meta-annotation types, looking up those of
+     * each meta-annotation type through the cache. Both top-level loads are
+     * in flight before either looks up the other type.
+     */
+    private static class MetaAnnotationNamesLoader implements MyAnnotationUtils.CacheLoader<Class<?>, Set<String>> {
+
+        private final MyAnnotationUtils.ConfigurableAnnotationCache<Class<?>, Set<String>> cache;
+
+        private final CountDownLatch bothLoading = new CountDownLatch(2);
+
+        private final ThreadLocal<Set<Class<?>>> visiting = new ThreadLocal<Set<Class<?>>>() {
+            @Override
+            protected Set<Class<?>> initialValue() {
+                return new HashSet<Class<?>>();
+            }
+        };
+
+        MetaAnnotationNamesLoader(MyAnnotationUtils.ConfigurableAnnotationCache<Class<?>, Set<String>> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Set<String> load(Class<?> type) {
+            Set<Class<?>> visiting = this.visiting.get();
+            if (visiting.isEmpty()) {
+                this.bothLoading.countDown();
+                awaitUninterruptibly(this.bothLoading);
+            }
+            if (!visiting.add(type)) {
+                return Collections.emptySet();
+            }
+            try {
+                Set<String> names = new TreeSet<String>();
+                for (Annotation annotation : type.getDeclaredAnnotations()) {
+                    Class<? extends Annotation> metaType = annotation.annotationType();
+                    if (metaType.getName().startsWith("java.lang.annotation")) {
+                        continue;
+                    }
+                    names.add(metaType.getName());
+                    names.addAll(this.cache.get(metaType, this));
+                }
+                return names;
+            } finally {
+                visiting.remove(type);
+            }
+        }
+
+        private static void awaitUninterruptibly(CountDownLatch latch) {
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
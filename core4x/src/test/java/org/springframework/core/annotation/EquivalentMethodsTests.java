@@ -0,0 +1,79 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link EquivalentMethods}.
+ *
+ * @author Zicheng Zhang
+ */
+public class EquivalentMethodsTests {
+
+    @Test
+    public void resolvesInterfacesAndSuperclassesInSearchOrder() throws Exception {
+        Method method = Handler.class.getDeclaredMethod("handle", String.class);
+        EquivalentMethods equivalentMethods = EquivalentMethods.resolve(method);
+
+        assertSame(method, equivalentMethods.getResolvedMethod());
+        assertEquals(2, equivalentMethods.size());
+        assertEquals(AbstractHandler.class.getDeclaredMethod("handle", String.class), equivalentMethods.get(0));
+        assertFalse(equivalentMethods.isInterfaceMethod(0));
+        assertEquals(Endpoint.class.getMethod("handle", String.class), equivalentMethods.get(1));
+        assertTrue(equivalentMethods.isInterfaceMethod(1));
+    }
+
+    @Test
+    public void resolvedOncePerMethod() throws Exception {
+        Method method = Handler.class.getDeclaredMethod("handle", String.class);
+        assertSame(MyAnnotationUtils.getEquivalentMethods(method), MyAnnotationUtils.getEquivalentMethods(method));
+    }
+
+    @Test
+    public void findAnnotationOnEquivalentMethods() throws Exception {
+        Method method = Handler.class.getDeclaredMethod("handle", String.class);
+        assertNotNull(MyAnnotationUtils.findAnnotation(method, Mapping.class));
+        assertNotNull(MyAnnotationUtils.findAnnotation(method, Secured.class));
+        assertNotNull(MyAnnotatedElementUtils.findMergedAnnotation(method, Mapping.class));
+        assertNotNull(MyAnnotatedElementUtils.findMergedAnnotation(method, Secured.class));
+    }
+
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Mapping {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Secured {
+    }
+
+    interface Endpoint {
+
+        @Mapping
+        void handle(String value);
+    }
+
+    static abstract class AbstractHandler implements Endpoint {
+
+        @Secured
+        public void handle(String value) {
+        }
+    }
+
+    static class Handler extends AbstractHandler {
+
+        @Override
+        public void handle(String value) {
+        }
+    }
+
+}
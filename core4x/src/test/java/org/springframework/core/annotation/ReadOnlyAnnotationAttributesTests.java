@@ -0,0 +1,116 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link ReadOnlyAnnotationAttributes} and the read-only merged
+ * attributes of {@link MyAnnotatedElementUtils}.
+ *
+ * @author Zicheng Zhang
+ */
+public class ReadOnlyAnnotationAttributesTests {
+
+    @Test
+    public void sameInstanceIsReturned() {
+        AnnotationAttributes attributes =
+                MyAnnotatedElementUtils.getReadOnlyMergedAnnotationAttributes(Annotated.class, Target.class);
+        assertEquals("/path", attributes.getString("name"));
+        assertEquals("/path", attributes.getString("value"));
+        assertSame(attributes, MyAnnotatedElementUtils.getReadOnlyMergedAnnotationAttributes(Annotated.class, Target.class));
+        assertNotSame(attributes, MyAnnotatedElementUtils.findReadOnlyMergedAnnotationAttributes(
+                Annotated.class, Target.class, false, false));
+    }
+
+    @Test
+    public void attributesAreMergedAgainAfterClearCache() {
+        AnnotationAttributes attributes = MyAnnotatedElementUtils.findReadOnlyMergedAnnotationAttributes(
+                Annotated.class, Target.class, true, true);
+        MyAnnotationUtils.clearCache();
+        AnnotationAttributes merged = MyAnnotatedElementUtils.findReadOnlyMergedAnnotationAttributes(
+                Annotated.class, Target.class, true, true);
+        assertNotSame(attributes, merged);
+        assertEquals(attributes, merged);
+    }
+
+    @Test
+    public void missingAnnotationIsCached() {
+        assertNull(MyAnnotatedElementUtils.getReadOnlyMergedAnnotationAttributes(Object.class, Target.class));
+        assertNull(MyAnnotatedElementUtils.getReadOnlyMergedAnnotationAttributes(Object.class, Target.class));
+    }
+
+    @Test
+    public void modificationIsRejected() {
+        AnnotationAttributes attributes =
+                MyAnnotatedElementUtils.getReadOnlyMergedAnnotationAttributes(Annotated.class, Target.class);
+        try {
+            attributes.put("name", "other");
+            throw new AssertionError("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+        try {
+            attributes.entrySet().clear();
+            throw new AssertionError("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+        try {
+            attributes.entrySet().iterator().next().setValue("other");
+            throw new AssertionError("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+        try {
+            attributes.keySet().iterator().remove();
+            throw new AssertionError("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+
+        AnnotationAttributes copy = new AnnotationAttributes(attributes);
+        copy.put("name", "other");
+        assertEquals("other", copy.getString("name"));
+        assertEquals(Target.class, copy.annotationType());
+        assertEquals("/path", attributes.getString("name"));
+    }
+
+    @Test
+    public void mergedAnnotationsUseCachedAttributes() {
+        Target target = MyAnnotatedElementUtils.findMergedAnnotation(Annotated.class, Target.class);
+        assertEquals("/path", target.name());
+        assertEquals("/path", target.value());
+        assertEquals("/path", MyAnnotatedElementUtils.getMergedAnnotation(Annotated.class, Target.class).name());
+    }
+
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Target {
+
+        @MyAliasFor("name")
+        String value() default "";
+
+        @MyAliasFor("value")
+        String name() default "";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target
+    @interface Composed {
+
+        @MyAliasFor(annotation = Target.class, attribute = "name")
+        String path() default "";
+    }
+
+    @Composed(path = "/path")
+    static class Annotated {
+    }
+
+}
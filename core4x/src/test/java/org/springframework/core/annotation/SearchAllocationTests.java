@@ -0,0 +1,146 @@
+package org.springframework.core.annotation;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation regression tests for warm annotation searches, which are
+ * expected to reuse their traversal state instead of allocating it.
+ * <p>Merged annotation searches still allocate the annotation they
+ * synthesize: a JDK proxy with its invocation handler and value cache, or an
+ * instance of the generated class with its resolved values. Everything else,
+ * including the merged attributes and their validated extractor, is reused.
+ *
+ * @author Zicheng Zhang
+ */
+public class SearchAllocationTests {
+
+    private static final int ITERATIONS = 10000;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        this.threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(this.threadMXBean.isThreadAllocatedMemorySupported());
+        this.threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void warmFindAnnotationDoesNotAllocate() {
+        final AnnotatedElement element = Annotated.class;
+        assertNotNull(MyAnnotationUtils.findAnnotation(element, Marker.class));
+        assertAllocationFree(new Runnable() {
+            @Override
+            public void run() {
+                MyAnnotationUtils.findAnnotation(element, Marker.class);
+            }
+        });
+    }
+
+    @Test
+    public void warmHasAnnotationDoesNotAllocate() {
+        assertTrue(MyAnnotatedElementUtils.hasAnnotation(Annotated.class, Marker.class));
+        assertAllocationFree(new Runnable() {
+            @Override
+            public void run() {
+                MyAnnotatedElementUtils.hasAnnotation(Annotated.class, Marker.class);
+            }
+        });
+    }
+
+    @Test
+    public void warmFindMergedAnnotationOnlyAllocatesTheSynthesizedAnnotation() {
+        final AnnotatedElement element = Annotated.class;
+        assertEquals("composed", MyAnnotatedElementUtils.findMergedAnnotation(element, Marker.class).value());
+        assertAllocatesOnlySynthesis(new Runnable() {
+            @Override
+            public void run() {
+                MyAnnotatedElementUtils.findMergedAnnotation(element, Marker.class);
+            }
+        }, MyAnnotatedElementUtils.findReadOnlyMergedAnnotationAttributes(element, Marker.class, false, false), element);
+    }
+
+    @Test
+    public void warmGetMergedAnnotationOnlyAllocatesTheSynthesizedAnnotation() {
+        final AnnotatedElement element = Annotated.class;
+        assertEquals("composed", MyAnnotatedElementUtils.getMergedAnnotation(element, Marker.class).value());
+        assertAllocatesOnlySynthesis(new Runnable() {
+            @Override
+            public void run() {
+                MyAnnotatedElementUtils.getMergedAnnotation(element, Marker.class);
+            }
+        }, MyAnnotatedElementUtils.getReadOnlyMergedAnnotationAttributes(element, Marker.class), element);
+    }
+
+    private void assertAllocationFree(Runnable search) {
+        long allocated = measureAllocatedBytes(search);
+        // Tolerate the bookkeeping of the measurement itself, not one object per search
+        assertTrue("Allocated " + allocated + " bytes in " + ITERATIONS + " searches", allocated < ITERATIONS);
+    }
+
+    /**
+     * Assert that the search allocates no more than the proxy it returns,
+     * created here from an attribute extractor that was built up front.
+     */
+    private void assertAllocatesOnlySynthesis(Runnable search, AnnotationAttributes attributes,
+                                              AnnotatedElement element) {
+        final MapAnnotationAttributeExtractor extractor =
+                new MapAnnotationAttributeExtractor(attributes, Marker.class, element);
+        long synthesized = measureAllocatedBytes(new Runnable() {
+            @Override
+            public void run() {
+                Proxy.newProxyInstance(Marker.class.getClassLoader(),
+                        new Class<?>[]{Marker.class, SynthesizedAnnotation.class},
+                        new SynthesizedAnnotationInvocationHandler(extractor));
+            }
+        });
+        long allocated = measureAllocatedBytes(search);
+        assertTrue("Allocated " + allocated + " bytes in " + ITERATIONS + " searches, synthesizing their results " +
+                "allocates " + synthesized + " bytes", allocated < synthesized + ITERATIONS);
+    }
+
+    private long measureAllocatedBytes(Runnable runnable) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            runnable.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = this.threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            runnable.run();
+        }
+        return this.threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Marker {
+
+        String value() default "";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Marker
+    @interface Composed {
+
+        @MyAliasFor(annotation = Marker.class)
+        String value() default "composed";
+    }
+
+    @Composed
+    static class Annotated {
+    }
+
+}
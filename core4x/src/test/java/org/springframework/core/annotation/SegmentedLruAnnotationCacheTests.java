@@ -0,0 +1,82 @@
+package org.springframework.core.annotation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SegmentedLruAnnotationCache} and configurable caches
+ * in {@link MyAnnotationUtils}.
+ *
+ * @author Zicheng Zhang
+ */
+public class SegmentedLruAnnotationCacheTests {
+
+    @After
+    public void restoreDefaultCaches() {
+        for (String cacheName : MyAnnotationUtils.getCacheNames()) {
+            MyAnnotationUtils.setCache(cacheName, null);
+        }
+    }
+
+    @Test
+    public void sizeIsCapped() {
+        SegmentedLruAnnotationCache<Integer, String> cache = new SegmentedLruAnnotationCache<Integer, String>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "value" + i);
+        }
+        assertTrue(cache.size() <= 100);
+        assertNotNull(cache.get(999));
+    }
+
+    @Test
+    public void frequentlyUsedEntriesSurviveScan() {
+        SegmentedLruAnnotationCache<Integer, String> cache = new SegmentedLruAnnotationCache<Integer, String>(10, 1);
+        cache.put(-1, "hot");
+        assertEquals("hot", cache.get(-1));
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "cold" + i);
+        }
+        assertEquals("hot", cache.get(-1));
+        assertNull(cache.get(0));
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void nullValuesAreIgnored() {
+        SegmentedLruAnnotationCache<String, String> cache = new SegmentedLruAnnotationCache<String, String>(4);
+        cache.put("key", null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void lookupsWorkWithTinyCaches() {
+        for (String cacheName : MyAnnotationUtils.getCacheNames()) {
+            MyAnnotationUtils.setCacheLimit(cacheName, 1);
+        }
+        for (int i = 0; i < 3; i++) {
+            AlisforsTests.Test5 test5 = MyAnnotatedElementUtils.getMergedAnnotation(
+                    AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+            assertEquals("override the method", test5.test1());
+            assertNotNull(MyAnnotationUtils.findAnnotation(AlisforsTests.Element1.class, AlisforsTests.Test1.class));
+        }
+    }
+
+    @Test
+    public void malformedConfiguredLimitFallsBackToUnbounded() {
+        assertEquals(0, MyAnnotationUtils.parseCacheLimit(MyAnnotationUtils.FIND_ANNOTATION_CACHE, "10k"));
+        assertEquals(0, MyAnnotationUtils.parseCacheLimit(MyAnnotationUtils.FIND_ANNOTATION_CACHE, " "));
+        assertEquals(0, MyAnnotationUtils.parseCacheLimit(MyAnnotationUtils.FIND_ANNOTATION_CACHE, "-5"));
+        assertEquals(128, MyAnnotationUtils.parseCacheLimit(MyAnnotationUtils.FIND_ANNOTATION_CACHE, " 128 "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCacheNameIsRejected() {
+        MyAnnotationUtils.setCacheLimit("noSuchCache", 10);
+    }
+
+}
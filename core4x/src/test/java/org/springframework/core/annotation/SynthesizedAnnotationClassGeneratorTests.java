@@ -0,0 +1,125 @@
+package org.springframework.core.annotation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for synthesized annotations backed by generated classes.
+ *
+ * @author Zicheng Zhang
+ */
+public class SynthesizedAnnotationClassGeneratorTests {
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Nested {
+        String value() default "nested";
+    }
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AllTypes {
+        boolean bool() default true;
+
+        char character() default 'c';
+
+        byte number8() default 8;
+
+        short number16() default 16;
+
+        int number32() default 32;
+
+        long number64() default 64L;
+
+        float decimal32() default 3.2f;
+
+        double decimal64() default Double.NaN;
+
+        String text() default "text";
+
+        Class<?> type() default String.class;
+
+        TimeUnit unit() default TimeUnit.SECONDS;
+
+        Nested nested() default @Nested;
+
+        int[] numbers() default {1, 2, 3};
+
+        String[] texts() default {"a", "b"};
+
+        Nested[] nestedArray() default {@Nested("x"), @Nested("y")};
+    }
+
+    @AllTypes
+    public static class DefaultsElement {
+    }
+
+    @Before
+    public void enableGeneratedSynthesis() {
+        MyAnnotationUtils.setGeneratedSynthesis(true);
+    }
+
+    @After
+    public void disableGeneratedSynthesis() {
+        MyAnnotationUtils.setGeneratedSynthesis(false);
+    }
+
+    @Test
+    public void synthesizeFromDefaultsMatchesJdkAnnotation() {
+        AllTypes jdk = DefaultsElement.class.getAnnotation(AllTypes.class);
+        AllTypes synthesized = MyAnnotationUtils.synthesizeAnnotation(AllTypes.class);
+
+        assertFalse(Proxy.isProxyClass(synthesized.getClass()));
+        assertTrue(synthesized instanceof SynthesizedAnnotation);
+        assertSame(AllTypes.class, synthesized.annotationType());
+        assertEquals(jdk, synthesized);
+        assertEquals(synthesized, jdk);
+        assertEquals(jdk.hashCode(), synthesized.hashCode());
+        assertEquals(TimeUnit.SECONDS, synthesized.unit());
+        assertEquals("nested", synthesized.nested().value());
+        assertEquals("y", synthesized.nestedArray()[1].value());
+        assertTrue(Double.isNaN(synthesized.decimal64()));
+    }
+
+    @Test
+    public void arrayAttributesAreCopiedOnRead() {
+        AllTypes synthesized = MyAnnotationUtils.synthesizeAnnotation(AllTypes.class);
+        int[] numbers = synthesized.numbers();
+        numbers[0] = 42;
+        assertNotSame(numbers, synthesized.numbers());
+        assertArrayEquals(new int[]{1, 2, 3}, synthesized.numbers());
+    }
+
+    @Test
+    public void mergedAnnotationMatchesProxyMode() {
+        AlisforsTests.Test5 generated = MyAnnotatedElementUtils.getMergedAnnotation(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        MyAnnotationUtils.setGeneratedSynthesis(false);
+        AlisforsTests.Test5 proxy = MyAnnotatedElementUtils.getMergedAnnotation(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+
+        assertFalse(Proxy.isProxyClass(generated.getClass()));
+        assertTrue(Proxy.isProxyClass(proxy.getClass()));
+        assertEquals("override the method", generated.test1());
+        assertEquals(proxy, generated);
+        assertEquals(generated, proxy);
+        assertEquals(proxy.hashCode(), generated.hashCode());
+        assertEquals(proxy.toString(), generated.toString());
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link VisitedElements}.
+ *
+ * @author Zicheng Zhang
+ */
+public class VisitedElementsTests {
+
+    @Test
+    public void classesAreAddedOnce() {
+        VisitedElements visited = new VisitedElements();
+        assertTrue(visited.add(AlisforsTests.Test1.class));
+        assertFalse(visited.add(AlisforsTests.Test1.class));
+        assertTrue(visited.add(AlisforsTests.Test2.class));
+        assertEquals(2, visited.size());
+    }
+
+    @Test
+    public void equalMethodsAreAddedOnce() throws Exception {
+        VisitedElements visited = new VisitedElements();
+        Method method = Object.class.getDeclaredMethod("toString");
+        assertTrue(visited.add(method));
+        assertFalse(visited.add(Object.class.getDeclaredMethod("toString")));
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        VisitedElements visited = new VisitedElements();
+        Class<?>[] types = {String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class,
+                Float.class, Character.class, Boolean.class, Object.class, Number.class, Class.class,
+                Thread.class, Runnable.class, Comparable.class, CharSequence.class, Iterable.class,
+                Cloneable.class, Void.class, Math.class};
+        for (Class<?> type : types) {
+            assertTrue(visited.add(type));
+        }
+        for (Class<?> type : types) {
+            assertFalse(visited.add(type));
+        }
+        assertEquals(types.length, visited.size());
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Hit, miss, wait, load and eviction statistics of one of the internal caches,
+ * i.e. a per-filter annotation type mappings cache or the merged annotation
+ * cache of {@link MyAnnotatedElementUtils}.
+ *
+ * <p>Counters are striped {@link LongAdder}s, so recording is cheap even
+ * under contention. Statistics are always collected; they can additionally be
+ * exposed as JMX MBeans named
+ * {@code org.springframework.core.annotation:type=AnnotationCache,name=<cacheName>}
+ * through {@link #registerMBeans()}.
+ *
+ * @author ZiCheng Zhang
+ * @since 5.3
+ */
+public class AnnotationCacheStatistics implements AnnotationCacheStatisticsMBean {
+
+	/**
+	 * The JMX domain of the cache statistics MBeans.
+	 */
+	public static final String JMX_DOMAIN = "org.springframework.core.annotation";
+
+	private static final Map<String, AnnotationCacheStatistics> statistics = new ConcurrentHashMap<>();
+
+	@Nullable
+	private static volatile MBeanServer mbeanServer;
+
+
+	private final String cacheName;
+
+	private final IntSupplier sizeSupplier;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder waitCount = new LongAdder();
+
+	private final LongAdder loadCount = new LongAdder();
+
+	private final LongAdder totalLoadTime = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	private AnnotationCacheStatistics(String cacheName, IntSupplier sizeSupplier) {
+		this.cacheName = cacheName;
+		this.sizeSupplier = sizeSupplier;
+	}
+
+
+	@Override
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	@Override
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	@Override
+	public long getWaitCount() {
+		return this.waitCount.sum();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long requests = hits + getMissCount() + getWaitCount();
+		return (requests != 0 ? (double) hits / requests : 1.0);
+	}
+
+	@Override
+	public long getLoadCount() {
+		return this.loadCount.sum();
+	}
+
+	@Override
+	public long getTotalLoadTime() {
+		return this.totalLoadTime.sum();
+	}
+
+	@Override
+	public double getAverageLoadPenalty() {
+		long loads = getLoadCount();
+		return (loads != 0 ? (double) getTotalLoadTime() / loads : 0.0);
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	@Override
+	public int getSize() {
+		return this.sizeSupplier.getAsInt();
+	}
+
+	@Override
+	public void reset() {
+		this.hitCount.reset();
+		this.missCount.reset();
+		this.waitCount.reset();
+		this.loadCount.reset();
+		this.totalLoadTime.reset();
+		this.evictionCount.reset();
+	}
+
+	void recordHit() {
+		this.hitCount.increment();
+	}
+
+	void recordMiss() {
+		this.missCount.increment();
+	}
+
+	void recordWait() {
+		this.waitCount.increment();
+	}
+
+	void recordLoad(long loadStartTime) {
+		this.loadCount.increment();
+		this.totalLoadTime.add(System.nanoTime() - loadStartTime);
+	}
+
+	void recordEviction() {
+		this.evictionCount.increment();
+	}
+
+	/**
+	 * Return the JMX object name of these statistics.
+	 */
+	public ObjectName getObjectName() {
+		try {
+			return new ObjectName(JMX_DOMAIN + ":type=AnnotationCache,name=" + ObjectName.quote(this.cacheName));
+		}
+		catch (MalformedObjectNameException ex) {
+			throw new IllegalStateException("Invalid cache name '" + this.cacheName + "'", ex);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.cacheName + " [hits=" + getHitCount() + ", misses=" + getMissCount() +
+				", waits=" + getWaitCount() + ", loads=" + getLoadCount() + ", evictions=" + getEvictionCount() + ", size=" + getSize() + "]";
+	}
+
+
+	/**
+	 * Create the statistics for the given cache and register them, also with
+	 * JMX if {@link #registerMBeans()} has been called.
+	 */
+	static AnnotationCacheStatistics register(String cacheName, IntSupplier sizeSupplier) {
+		AnnotationCacheStatistics cacheStatistics = new AnnotationCacheStatistics(cacheName, sizeSupplier);
+		statistics.put(cacheName, cacheStatistics);
+		MBeanServer server = mbeanServer;
+		if (server != null) {
+			registerMBean(server, cacheStatistics);
+		}
+		return cacheStatistics;
+	}
+
+	/**
+	 * Return the statistics of the cache with the given name.
+	 *
+	 * @param cacheName the name of the cache
+	 * @return the statistics, or {@code null} if there is no such cache
+	 */
+	@Nullable
+	public static AnnotationCacheStatistics get(String cacheName) {
+		return statistics.get(cacheName);
+	}
+
+	/**
+	 * Return the statistics of all caches.
+	 */
+	public static Collection<AnnotationCacheStatistics> getAll() {
+		return Collections.unmodifiableCollection(new ArrayList<>(statistics.values()));
+	}
+
+	/**
+	 * Register the statistics of all caches as MBeans with the platform
+	 * MBean server.
+	 *
+	 * @see #unregisterMBeans()
+	 */
+	public static void registerMBeans() {
+		registerMBeans(ManagementFactory.getPlatformMBeanServer());
+	}
+
+	/**
+	 * Register the statistics of all caches as MBeans with the given server.
+	 *
+	 * @param server the MBean server to register with
+	 * @see #unregisterMBeans()
+	 */
+	public static synchronized void registerMBeans(MBeanServer server) {
+		mbeanServer = server;
+		for (AnnotationCacheStatistics cacheStatistics : statistics.values()) {
+			registerMBean(server, cacheStatistics);
+		}
+	}
+
+	/**
+	 * Unregister all cache statistics MBeans registered through
+	 * {@link #registerMBeans(MBeanServer)}.
+	 */
+	public static synchronized void unregisterMBeans() {
+		MBeanServer server = mbeanServer;
+		if (server == null) {
+			return;
+		}
+		mbeanServer = null;
+		for (AnnotationCacheStatistics cacheStatistics : statistics.values()) {
+			try {
+				ObjectName objectName = cacheStatistics.getObjectName();
+				if (server.isRegistered(objectName)) {
+					server.unregisterMBean(objectName);
+				}
+			}
+		catch (JMException ex) {
+				throw new IllegalStateException("Failed to unregister MBean for cache '" +
+						cacheStatistics.getCacheName() + "'", ex);
+			}
+		}
+	}
+
+	private static void registerMBean(MBeanServer server, AnnotationCacheStatistics cacheStatistics) {
+		try {
+			ObjectName objectName = cacheStatistics.getObjectName();
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(cacheStatistics, objectName);
+		}
+		catch (JMException ex) {
+			throw new IllegalStateException("Failed to register MBean for cache '" +
+					cacheStatistics.getCacheName() + "'", ex);
+		}
+	}
+
+}
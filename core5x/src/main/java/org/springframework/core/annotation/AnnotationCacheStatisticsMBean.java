@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+/**
+ * JMX management interface for {@link AnnotationCacheStatistics}.
+ *
+ * @author ZiCheng Zhang
+ * @see AnnotationCacheStatistics#registerMBeans()
+ * @since 5.3
+ */
+public interface AnnotationCacheStatisticsMBean {
+
+	/**
+	 * Return the name of the cache these statistics belong to.
+	 */
+	String getCacheName();
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 */
+	long getHitCount();
+
+	/**
+	 * Return the number of lookups that found no cached value.
+	 */
+	long getMissCount();
+
+	/**
+	 * Return the number of lookups that found no cached value and waited for
+	 * another thread that was already computing it. These are counted
+	 * neither as hits nor as misses.
+	 */
+	long getWaitCount();
+
+	/**
+	 * Return the ratio of hits to all lookups, or {@code 1.0} if there were none.
+	 */
+	double getHitRatio();
+
+	/**
+	 * Return the number of values computed and stored after a miss.
+	 */
+	long getLoadCount();
+
+	/**
+	 * Return the total time spent computing values after a miss, in nanoseconds.
+	 */
+	long getTotalLoadTime();
+
+	/**
+	 * Return the average time spent computing a value, in nanoseconds.
+	 */
+	double getAverageLoadPenalty();
+
+	/**
+	 * Return the number of entries the cache has dropped on its own accord.
+	 */
+	long getEvictionCount();
+
+	/**
+	 * Return the current number of entries in the cache.
+	 */
+	int getSize();
+
+	/**
+	 * Reset all counters of these statistics.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry assigning each annotation type, and each annotation type name, an
+ * {@code int} id, so that sets of annotation types can be held as sorted id
+ * arrays. The size of such an array follows the number of types in the set,
+ * not the number of ids assigned so far.
+ * <p>Type ids are attached to the {@link Class} itself and go away with it.
+ * Ids are never reused, so an id set built earlier can never report a type
+ * that was registered later.
+ *
+ * @author ZiCheng Zhang
+ * @since 5.3
+ * @see MyAnnotationTypeMappings
+ */
+final class AnnotationTypeIds {
+
+	/**
+	 * The empty id set.
+	 */
+	static final int[] EMPTY_IDS = new int[0];
+
+	private static final AtomicInteger nextTypeId = new AtomicInteger();
+
+	private static final AtomicInteger nextNameId = new AtomicInteger();
+
+	private static final ClassValue<Integer> typeIds = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return nextTypeId.getAndIncrement();
+		}
+	};
+
+	private static final ConcurrentMap<String, Integer> nameIds = new ConcurrentHashMap<>();
+
+
+	private AnnotationTypeIds() {
+	}
+
+
+	/**
+	 * Return the id of the given annotation type, assigning one if necessary.
+	 */
+	static int getTypeId(Class<?> annotationType) {
+		return typeIds.get(annotationType);
+	}
+
+	/**
+	 * Return the id of the given annotation type name, assigning one if
+	 * necessary.
+	 */
+	static int getNameId(String annotationName) {
+		return nameIds.computeIfAbsent(annotationName, name -> nextNameId.getAndIncrement());
+	}
+
+	/**
+	 * Return the id of the given annotation type name, or {@code -1} if no
+	 * annotation type of that name has been registered yet.
+	 */
+	static int findNameId(String annotationName) {
+		Integer id = nameIds.get(annotationName);
+		return (id != null ? id : -1);
+	}
+
+	/**
+	 * Return the given sorted id set with the given id added, or the same
+	 * array if it already contains the id.
+	 */
+	static int[] add(int[] ids, int id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index >= 0) {
+			return ids;
+		}
+		int insertionPoint = -index - 1;
+		int[] result = new int[ids.length + 1];
+		System.arraycopy(ids, 0, result, 0, insertionPoint);
+		result[insertionPoint] = id;
+		System.arraycopy(ids, insertionPoint, result, insertionPoint + 1, ids.length - insertionPoint);
+		return result;
+	}
+
+	/**
+	 * Determine if the given sorted id set contains the given id.
+	 */
+	static boolean contains(int[] ids, int id) {
+		return (id >= 0 && Arrays.binarySearch(ids, id) >= 0);
+	}
+
+}
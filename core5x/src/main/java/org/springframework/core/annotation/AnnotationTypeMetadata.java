@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Metadata attached to each annotation type through a {@link ClassValue},
+ * bundling its {@link MyAnnotationTypeMappings} for the common combinations of
+ * repeatable containers and alias mode with the {@link AnnotationFilter#PLAIN}
+ * filter in one holder.
+ *
+ * <p>Looking up the holder is close to a field load, unlike hashing into a
+ * {@code ConcurrentReferenceHashMap}, and it is unloaded together with the
+ * class loader of the type. The mappings caches remain the source of truth and
+ * publish into the holder. Mappings are held softly, like in those caches, and
+ * {@link #clear()} drops all holders at once by replacing the
+ * {@code ClassValue}, which cannot be enumerated.
+ *
+ * @author ZiCheng Zhang
+ * @since 5.3
+ * @see MyAnnotationTypeMappings
+ */
+final class AnnotationTypeMetadata {
+
+	/**
+	 * The number of slots per annotation type: standard or no repeatable
+	 * containers, each with single or multiple aliases.
+	 */
+	static final int SLOT_COUNT = 4;
+
+	private static volatile ClassValue<AnnotationTypeMetadata> metadata = createMetadata();
+
+
+	private final AtomicReferenceArray<SoftReference<MyAnnotationTypeMappings>> mappings =
+			new AtomicReferenceArray<>(SLOT_COUNT);
+
+
+	private AnnotationTypeMetadata() {
+	}
+
+
+	/**
+	 * Return the slot for the given combination, or {@code -1} if it is not
+	 * held per annotation type.
+	 */
+	static int getSlot(RepeatableContainers repeatableContainers, AnnotationFilter filter,
+			boolean enableMultipleAliases) {
+
+		if (filter != AnnotationFilter.PLAIN) {
+			return -1;
+		}
+		if (repeatableContainers == RepeatableContainers.standardRepeatables()) {
+			return (enableMultipleAliases ? 1 : 0);
+		}
+		if (repeatableContainers == RepeatableContainers.none()) {
+			return (enableMultipleAliases ? 3 : 2);
+		}
+		return -1;
+	}
+
+	/**
+	 * Return the current holder for the given annotation type. Mappings built
+	 * after obtaining it are published into it, so that a {@link #clear()}
+	 * while they are built leaves them unreachable.
+	 */
+	static AnnotationTypeMetadata forAnnotationType(Class<?> annotationType) {
+		return metadata.get(annotationType);
+	}
+
+	/**
+	 * Invalidate all published mappings.
+	 */
+	static void clear() {
+		metadata = createMetadata();
+	}
+
+	private static ClassValue<AnnotationTypeMetadata> createMetadata() {
+		return new ClassValue<AnnotationTypeMetadata>() {
+			@Override
+			protected AnnotationTypeMetadata computeValue(Class<?> type) {
+				return new AnnotationTypeMetadata();
+			}
+		};
+	}
+
+
+	/**
+	 * Return the mappings published into the given slot, unless they have
+	 * been released.
+	 */
+	@Nullable
+	MyAnnotationTypeMappings getMappings(int slot) {
+		SoftReference<MyAnnotationTypeMappings> reference = this.mappings.get(slot);
+		return (reference != null ? reference.get() : null);
+	}
+
+	/**
+	 * Publish the mappings into the given slot.
+	 */
+	void setMappings(int slot, MyAnnotationTypeMappings mappings) {
+		this.mappings.set(slot, new SoftReference<>(mappings));
+	}
+
+}
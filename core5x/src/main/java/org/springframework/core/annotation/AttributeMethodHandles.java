@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * {@link MethodHandle} based accessors for the attributes of an annotation
+ * type, indexed like its {@link AttributeMethods}.
+ *
+ * <p>Used as the {@link ValueExtractor} for annotation instances in place of
+ * {@link ReflectionUtils#invokeMethod(Method, Object)}, which avoids the
+ * varargs array and the access checks of a reflective call on every
+ * attribute read.
+ *
+ * @author ZiCheng Zhang
+ * @since 5.3
+ * @see MyAnnotationTypeMapping#getAttributeHandles()
+ */
+final class AttributeMethodHandles implements ValueExtractor {
+
+	private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final Map<Class<? extends Annotation>, AttributeMethodHandles> cache =
+			new ConcurrentReferenceHashMap<>();
+
+
+	private final Class<? extends Annotation> annotationType;
+
+	private final AttributeMethods attributes;
+
+	/**
+	 * One handle per attribute, or {@code null} where the attribute method
+	 * could not be unreflected and reflection is used instead.
+	 */
+	private final MethodHandle[] handles;
+
+
+	private AttributeMethodHandles(Class<? extends Annotation> annotationType) {
+		this.annotationType = annotationType;
+		this.attributes = AttributeMethods.forAnnotationType(annotationType);
+		this.handles = new MethodHandle[this.attributes.size()];
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		for (int i = 0; i < this.handles.length; i++) {
+			try {
+				// AttributeMethods has already made the method accessible
+				this.handles[i] = lookup.unreflect(this.attributes.get(i)).asType(ACCESSOR_TYPE);
+			}
+			catch (IllegalAccessException ex) {
+				this.handles[i] = null;
+			}
+		}
+	}
+
+
+	/**
+	 * Invoke the attribute at the given index on the supplied annotation.
+	 * @param attributeIndex the index of the attribute
+	 * @param annotation the annotation instance to read from
+	 * @return the attribute value
+	 */
+	@Nullable
+	Object invoke(int attributeIndex, @Nullable Object annotation) {
+		MethodHandle handle = this.handles[attributeIndex];
+		if (handle == null) {
+			return ReflectionUtils.invokeMethod(this.attributes.get(attributeIndex), annotation);
+		}
+		try {
+			return handle.invokeExact(annotation);
+		}
+		catch (Throwable ex) {
+			ReflectionUtils.rethrowRuntimeException(ex);
+			throw new IllegalStateException("Should never get here");
+		}
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public Object extract(Method attribute, @Nullable Object annotation) {
+		AttributeMethodHandles handles = (attribute.getDeclaringClass() == this.annotationType ? this :
+				forAnnotationType((Class<? extends Annotation>) attribute.getDeclaringClass()));
+		int attributeIndex = handles.indexOf(attribute);
+		if (attributeIndex == -1) {
+			return ReflectionUtils.invokeMethod(attribute, annotation);
+		}
+		return handles.invoke(attributeIndex, annotation);
+	}
+
+	private int indexOf(Method attribute) {
+		for (int i = 0; i < this.attributes.size(); i++) {
+			if (this.attributes.get(i) == attribute) {
+				return i;
+			}
+		}
+		return this.attributes.indexOf(attribute);
+	}
+
+
+	/**
+	 * Get the attribute accessors for the given annotation type.
+	 * @param annotationType the annotation type
+	 * @return the attribute accessors for the annotation type
+	 */
+	static AttributeMethodHandles forAnnotationType(Class<? extends Annotation> annotationType) {
+		return cache.computeIfAbsent(annotationType, AttributeMethodHandles::new);
+	}
+
+}
@@ -17,13 +17,17 @@
 package org.springframework.core.annotation;
 
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.MergedAnnotation.Adapt;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.MultiValueMap;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * General utility methods for finding annotations, meta-annotations, and
@@ -95,6 +99,31 @@ import java.util.Comparator;
  */
 public abstract class MyAnnotatedElementUtils {
 
+	/**
+	 * System property that instructs {@link #getMergedAnnotationWithMultipleAliases}
+	 * to cache its results per element and annotation type:
+	 * {@code "spring.annotation.merged.cache"}.
+	 * <p>The default is "false". Can also be switched at runtime through
+	 * {@link #setMergedAnnotationCaching(boolean)}.
+	 * @since 5.3
+	 */
+	public static final String MERGED_ANNOTATION_CACHE_PROPERTY_NAME = "spring.annotation.merged.cache";
+
+	/**
+	 * Marker for an annotation that is not present on an element.
+	 */
+	private static final Object NOT_PRESENT = new Object();
+
+	private static final Map<AnnotatedElement, Map<Class<? extends Annotation>, Object>> mergedAnnotationCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final AnnotationCacheStatistics mergedAnnotationCacheStatistics =
+			AnnotationCacheStatistics.register("mergedAnnotationCache", mergedAnnotationCache::size);
+
+	private static volatile boolean mergedAnnotationCaching =
+			SpringProperties.getFlag(MERGED_ANNOTATION_CACHE_PROPERTY_NAME);
+
+
 	/**
 	 * Get the first annotation of the specified {@code annotationType} within
 	 * the annotation hierarchy <em>above</em> the supplied {@code element},
@@ -117,6 +146,30 @@ public abstract class MyAnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A getMergedAnnotationWithMultipleAliases(AnnotatedElement element, Class<A> annotationType) {
+		if (!mergedAnnotationCaching) {
+			return doGetMergedAnnotationWithMultipleAliases(element, annotationType);
+		}
+		Map<Class<? extends Annotation>, Object> results =
+				mergedAnnotationCache.computeIfAbsent(element, key -> new ConcurrentHashMap<>(4));
+		Object result = results.get(annotationType);
+		if (result != null) {
+			mergedAnnotationCacheStatistics.recordHit();
+		}
+		else {
+			mergedAnnotationCacheStatistics.recordMiss();
+			long loadStartTime = System.nanoTime();
+			A annotation = doGetMergedAnnotationWithMultipleAliases(element, annotationType);
+			result = (annotation != null ? annotation : NOT_PRESENT);
+			results.put(annotationType, result);
+			mergedAnnotationCacheStatistics.recordLoad(loadStartTime);
+		}
+		return (result != NOT_PRESENT ? annotationType.cast(result) : null);
+	}
+
+	@Nullable
+	private static <A extends Annotation> A doGetMergedAnnotationWithMultipleAliases(
+			AnnotatedElement element, Class<A> annotationType) {
+
 		// Shortcut: directly present on the element, with no merging needed?
 		if (AnnotationFilter.PLAIN.matches(annotationType) ||
 				AnnotationsScanner.hasPlainJavaAnnotationsOnly(element)) {
@@ -132,4 +185,33 @@ public abstract class MyAnnotatedElementUtils {
 		return MyMergedAnnotations.fromMultipleAliasesAnnotations(element, MergedAnnotations.SearchStrategy.INHERITED_ANNOTATIONS, RepeatableContainers.none());
 	}
 
+	/**
+	 * Switch caching of {@link #getMergedAnnotationWithMultipleAliases} results
+	 * on or off.
+	 * <p>When on, the synthesized annotation, or the fact that none is present,
+	 * is cached per element and annotation type, so that repeated lookups skip
+	 * scanning the element and merging its annotations. Cached results are
+	 * dropped by {@link #clearCache()}.
+	 * @param caching {@code true} to cache merged annotations
+	 * @since 5.3
+	 * @see #MERGED_ANNOTATION_CACHE_PROPERTY_NAME
+	 */
+	public static void setMergedAnnotationCaching(boolean caching) {
+		mergedAnnotationCaching = caching;
+		if (!caching) {
+			mergedAnnotationCache.clear();
+		}
+	}
+
+	/**
+	 * Clear the internal merged annotation and annotation metadata caches.
+	 * @since 5.3
+	 * @see AnnotationUtils#clearCache()
+	 */
+	public static void clearCache() {
+		mergedAnnotationCache.clear();
+		MyAnnotationTypeMappings.clearCache();
+		AnnotationUtils.clearCache();
+	}
+
 }
@@ -18,8 +18,8 @@ package org.springframework.core.annotation;
 
 import org.springframework.core.annotation.MyAnnotationTypeMapping.MirrorSets.MirrorSet;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.lang.annotation.Annotation;
@@ -34,6 +34,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Provides mapping information for a single annotation (or meta-annotation) in
@@ -50,6 +51,21 @@ final class MyAnnotationTypeMapping {
 
 	private static final MirrorSet[] EMPTY_MIRROR_SETS = new MirrorSet[0];
 
+	/**
+	 * Alias targets per annotation type, shared by all mappings of that type
+	 * regardless of their root.
+	 */
+	private static final Map<Class<? extends Annotation>, Map<Method, List<Method>>> aliasedByCache =
+			new ConcurrentReferenceHashMap<>();
+
+	private static final Map<Class<? extends Annotation>, Map<Method, List<Method>>> multipleAliasedByCache =
+			new ConcurrentReferenceHashMap<>();
+
+	/**
+	 * Canonical mirror sets per annotation type and mirror layout.
+	 */
+	private static final Map<MirrorSetsKey, MirrorSets> mirrorSetsCache = new ConcurrentReferenceHashMap<>();
+
 
 	@Nullable
 	private final MyAnnotationTypeMapping source;
@@ -60,34 +76,44 @@ final class MyAnnotationTypeMapping {
 
 	private final Class<? extends Annotation> annotationType;
 
-	private final List<Class<? extends Annotation>> metaTypes;
-
 	@Nullable
 	private final Annotation annotation;
 
 	private final AttributeMethods attributes;
 
-	private final MirrorSets mirrorSets;
+	private final AttributeMethodHandles attributeHandles;
 
-	private final int[] aliasMappings;
+	private MirrorSets mirrorSets;
 
-	private final int[] conventionMappings;
+	/**
+	 * Attribute tables, either owned by this mapping or, once
+	 * {@link #compact compacted}, shared by all mappings of the same
+	 * {@link MyAnnotationTypeMappings} and starting at {@link #offset}.
+	 */
+	private int[] aliasMappings;
+
+	private int[] conventionMappings;
+
+	private int[] annotationValueMappings;
 
-	private final int[] annotationValueMappings;
+	private MyAnnotationTypeMapping[] annotationValueSource;
 
-	private final MyAnnotationTypeMapping[] annotationValueSource;
+	private int offset;
 
 	/**
 	 * key:alias method, value:who declared
+	 * <p>Only needed while the mappings are built.
 	 */
-	private final Map<Method, List<Method>> aliasedBy;
+	private Map<Method, List<Method>> aliasedBy;
 
 	private final boolean synthesizable;
 
 	/**
 	 * How many aliases are declared
+	 * <p>Only needed while the mappings are built.
 	 */
-	private final Set<Method> claimedAliases = new HashSet<>();
+	@Nullable
+	private Set<Method> claimedAliases = new HashSet<>();
 
 
 	MyAnnotationTypeMapping(@Nullable MyAnnotationTypeMapping source,
@@ -97,23 +123,49 @@ final class MyAnnotationTypeMapping {
 		this.root = (source != null ? source.getRoot() : this);
 		this.distance = (source == null ? 0 : source.getDistance() + 1);
 		this.annotationType = annotationType;
-		this.metaTypes = merge(
-				source != null ? source.getMetaTypes() : null,
-				annotationType);
 		this.annotation = annotation;
 		this.attributes = AttributeMethods.forAnnotationType(annotationType);
-		this.mirrorSets = new MirrorSets();
+		this.attributeHandles = AttributeMethodHandles.forAnnotationType(annotationType);
+		this.mirrorSets = new MirrorSets(annotationType, this.attributes);
 		this.aliasMappings = filledIntArray(this.attributes.size());
 		this.conventionMappings = filledIntArray(this.attributes.size());
 		this.annotationValueMappings = filledIntArray(this.attributes.size());
 		this.annotationValueSource = new MyAnnotationTypeMapping[this.attributes.size()];
-		this.aliasedBy = resolveAliasedForTargets();
+		this.aliasedBy = getAliasedBy(aliasedByCache, this::resolveAliasedForTargets);
 		processAliases();
 		addConventionMappings();
 		addConventionAnnotationValues();
 		this.synthesizable = computeSynthesizableFlag();
 	}
 
+	/**
+	 * Restore a mapping from previously computed mapping tables, as read from
+	 * a {@link MyAnnotationTypeMappingsSnapshot}. Aliases are not resolved or
+	 * validated again, and no further mappings may be built on top of the
+	 * restored one.
+	 */
+	MyAnnotationTypeMapping(@Nullable MyAnnotationTypeMapping source, Class<? extends Annotation> annotationType,
+			@Nullable Annotation annotation, int[] aliasMappings, int[] conventionMappings,
+			int[] annotationValueMappings, MyAnnotationTypeMapping[] annotationValueSource,
+			int[] mirrorSetIndexes, boolean synthesizable) {
+
+		this.source = source;
+		this.root = (source != null ? source.getRoot() : this);
+		this.distance = (source == null ? 0 : source.getDistance() + 1);
+		this.annotationType = annotationType;
+		this.annotation = annotation;
+		this.attributes = AttributeMethods.forAnnotationType(annotationType);
+		this.attributeHandles = AttributeMethodHandles.forAnnotationType(annotationType);
+		this.mirrorSets = new MirrorSets(annotationType, this.attributes, mirrorSetIndexes);
+		this.aliasMappings = aliasMappings;
+		this.conventionMappings = conventionMappings;
+		this.annotationValueMappings = annotationValueMappings;
+		this.annotationValueSource = annotationValueSource;
+		this.aliasedBy = Collections.emptyMap();
+		this.synthesizable = synthesizable;
+		this.claimedAliases = null;
+	}
+
 	/**
 	 * todo
 	 * This constructor is compatible with the case of only declaring a single alias.
@@ -127,34 +179,47 @@ final class MyAnnotationTypeMapping {
 		this.root = (source != null ? source.getRoot() : this);
 		this.distance = (source == null ? 0 : source.getDistance() + 1);
 		this.annotationType = annotationType;
-		this.metaTypes = merge(
-				source != null ? source.getMetaTypes() : null,
-				annotationType);
 		this.annotation = annotation;
 		this.attributes = AttributeMethods.forAnnotationType(annotationType);
-		this.mirrorSets = new MirrorSets();
+		this.attributeHandles = AttributeMethodHandles.forAnnotationType(annotationType);
+		this.mirrorSets = new MirrorSets(annotationType, this.attributes);
 		this.aliasMappings = filledIntArray(this.attributes.size());
 		this.conventionMappings = filledIntArray(this.attributes.size());
 		this.annotationValueMappings = filledIntArray(this.attributes.size());
 		this.annotationValueSource = new MyAnnotationTypeMapping[this.attributes.size()];
-		this.aliasedBy = enableMultipleAliases ? resolveAliasedForsTargets() : resolveAliasedForTargets();
+		this.aliasedBy = (enableMultipleAliases ?
+				getAliasedBy(multipleAliasedByCache, this::resolveAliasedForsTargets) :
+				getAliasedBy(aliasedByCache, this::resolveAliasedForTargets));
 		processAliases();
 		addConventionMappings();
 		addConventionAnnotationValues();
 		this.synthesizable = computeSynthesizableFlag();
 	}
 
-	private static <T> List<T> merge(@Nullable List<T> existing, T element) {
-		if (existing == null) {
-			return Collections.singletonList(element);
+	/**
+	 * Get the alias targets of the annotation type from the given cache. They
+	 * are resolved outside of the cache's locks, since that needs reflection,
+	 * and the first result published for the annotation type wins.
+	 */
+	private Map<Method, List<Method>> getAliasedBy(Map<Class<? extends Annotation>, Map<Method, List<Method>>> cache,
+			Supplier<Map<Method, List<Method>>> resolver) {
+
+		Map<Method, List<Method>> aliasedBy = cache.get(this.annotationType);
+		if (aliasedBy == null) {
+			aliasedBy = resolver.get();
+			Map<Method, List<Method>> existing = cache.putIfAbsent(this.annotationType, aliasedBy);
+			if (existing != null) {
+				aliasedBy = existing;
+			}
 		}
-		List<T> merged = new ArrayList<>(existing.size() + 1);
-		merged.addAll(existing);
-		merged.add(element);
-		return Collections.unmodifiableList(merged);
+		return aliasedBy;
 	}
 
 	private Map<Method, List<Method>> resolveAliasedForTargets() {
+		Map<Method, List<Method>> indexed = resolveIndexedAliasedForTargets(false);
+		if (indexed != null) {
+			return indexed;
+		}
 		Map<Method, List<Method>> aliasedBy = new HashMap<>();
 		for (int i = 0; i < this.attributes.size(); i++) {
 			Method attribute = this.attributes.get(i);
@@ -174,6 +239,10 @@ final class MyAnnotationTypeMapping {
 	 * directly {@link #resolveAliasedForTargets}
 	 */
 	private Map<Method, List<Method>> resolveAliasedForsTargets() {
+		Map<Method, List<Method>> indexed = resolveIndexedAliasedForTargets(true);
+		if (indexed != null) {
+			return indexed;
+		}
 		Map<Method, List<Method>> aliasedBy = new HashMap<>();
 		for (int i = 0; i < this.attributes.size(); i++) {
 			Method attribute = this.attributes.get(i);
@@ -197,6 +266,34 @@ final class MyAnnotationTypeMapping {
 		return Collections.unmodifiableMap(aliasedBy);
 	}
 
+	/**
+	 * Read the alias targets from the {@link MyAliasForIndex}, if the annotation
+	 * type is indexed. Indexed declarations have been validated at build time,
+	 * the mirror sets formed by them are still validated when all mappings are
+	 * set, as the processor does not compare the defaults of implicit mirrors.
+	 * @return the alias targets, or {@code null} if they need to be resolved
+	 * through reflection
+	 */
+	@Nullable
+	private Map<Method, List<Method>> resolveIndexedAliasedForTargets(boolean multipleAliases) {
+		MyAliasForIndex index = MyAliasForIndex.forAnnotationType(this.annotationType);
+		if (!index.isIndexed(this.annotationType)) {
+			return null;
+		}
+		Map<Method, List<Method>> aliasedBy = new HashMap<>();
+		for (int i = 0; i < this.attributes.size(); i++) {
+			Method attribute = this.attributes.get(i);
+			List<Method> targets = index.getAliasTargets(attribute, multipleAliases);
+			if (targets == null) {
+				return null;
+			}
+			for (Method target : targets) {
+				aliasedBy.computeIfAbsent(target, key -> new ArrayList<>()).add(attribute);
+			}
+		}
+		return Collections.unmodifiableMap(aliasedBy);
+	}
+
 	private Method resolveAliasTarget(Method attribute, MyAliasFor aliasFor) {
 		return resolveAliasTarget(attribute, aliasFor, true);
 	}
@@ -308,7 +405,7 @@ final class MyAnnotationTypeMapping {
 			mapping.claimedAliases.addAll(aliases);
 			if (mapping.annotation != null) {
 				int[] resolvedMirrors = mapping.mirrorSets.resolve(null,
-						mapping.annotation, ReflectionUtils::invokeMethod);
+						mapping.annotation, mapping.attributeHandles);
 				for (int i = 0; i < mapping.attributes.size(); i++) {
 					if (aliases.contains(mapping.attributes.get(i))) {
 						this.annotationValueMappings[attributeIndex] = resolvedMirrors[i];
@@ -427,7 +524,38 @@ final class MyAnnotationTypeMapping {
 		for (int i = 0; i < this.mirrorSets.size(); i++) {
 			validateMirrorSet(this.mirrorSets.get(i));
 		}
-		this.claimedAliases.clear();
+	}
+
+	/**
+	 * Method called once all mappings have been validated. Moves the attribute
+	 * tables of this mapping into the given tables, which are shared by all
+	 * mappings of the same {@link MyAnnotationTypeMappings}, replaces the mirror
+	 * sets with the canonical instance for this annotation type and drops the
+	 * state only needed while building the mappings.
+	 * @param aliasMappings the shared alias mappings
+	 * @param conventionMappings the shared convention mappings
+	 * @param annotationValueMappings the shared annotation value mappings
+	 * @param annotationValueSource the shared annotation value sources
+	 * @param offset the index of the first attribute of this mapping in the
+	 * shared tables
+	 * @since 5.3
+	 */
+	void compact(int[] aliasMappings, int[] conventionMappings, int[] annotationValueMappings,
+			MyAnnotationTypeMapping[] annotationValueSource, int offset) {
+
+		int size = this.attributes.size();
+		System.arraycopy(this.aliasMappings, this.offset, aliasMappings, offset, size);
+		System.arraycopy(this.conventionMappings, this.offset, conventionMappings, offset, size);
+		System.arraycopy(this.annotationValueMappings, this.offset, annotationValueMappings, offset, size);
+		System.arraycopy(this.annotationValueSource, this.offset, annotationValueSource, offset, size);
+		this.aliasMappings = aliasMappings;
+		this.conventionMappings = conventionMappings;
+		this.annotationValueMappings = annotationValueMappings;
+		this.annotationValueSource = annotationValueSource;
+		this.offset = offset;
+		this.mirrorSets = mirrorSetsCache.computeIfAbsent(new MirrorSetsKey(this.mirrorSets), key -> this.mirrorSets);
+		this.aliasedBy = Collections.emptyMap();
+		this.claimedAliases = null;
 	}
 
 	private void validateAllAliasesClaimed() {
@@ -495,8 +623,24 @@ final class MyAnnotationTypeMapping {
 		return this.annotationType;
 	}
 
+	/**
+	 * Get the annotation types from the root mapping down to this one.
+	 * <p>Computed on each call rather than held by every mapping.
+	 * @return the meta types
+	 */
 	List<Class<? extends Annotation>> getMetaTypes() {
-		return this.metaTypes;
+		if (this.source == null) {
+			return Collections.singletonList(this.annotationType);
+		}
+		Class<?>[] metaTypes = new Class<?>[this.distance + 1];
+		MyAnnotationTypeMapping mapping = this;
+		while (mapping != null) {
+			metaTypes[mapping.distance] = mapping.annotationType;
+			mapping = mapping.source;
+		}
+		@SuppressWarnings("unchecked")
+		List<Class<? extends Annotation>> result = (List) Arrays.asList(metaTypes);
+		return Collections.unmodifiableList(result);
 	}
 
 	/**
@@ -517,6 +661,15 @@ final class MyAnnotationTypeMapping {
 		return this.attributes;
 	}
 
+	/**
+	 * Get the method handle based accessors for the mapping annotation type.
+	 * @return the attribute accessors
+	 * @since 5.3
+	 */
+	AttributeMethodHandles getAttributeHandles() {
+		return this.attributeHandles;
+	}
+
 	/**
 	 * Get the related index of an alias mapped attribute, or {@code -1} if
 	 * there is no mapping. The resulting value is the index of the attribute on
@@ -526,7 +679,7 @@ final class MyAnnotationTypeMapping {
 	 * @return the mapped attribute index or {@code -1}
 	 */
 	int getAliasMapping(int attributeIndex) {
-		return this.aliasMappings[attributeIndex];
+		return this.aliasMappings[this.offset + attributeIndex];
 	}
 
 	/**
@@ -538,7 +691,30 @@ final class MyAnnotationTypeMapping {
 	 * @return the mapped attribute index or {@code -1}
 	 */
 	int getConventionMapping(int attributeIndex) {
-		return this.conventionMappings[attributeIndex];
+		return this.conventionMappings[this.offset + attributeIndex];
+	}
+
+	/**
+	 * Get the index of the attribute on the {@link #getAnnotationValueSource
+	 * source mapping} that provides the mapped annotation value, or {@code -1}.
+	 * @param attributeIndex the attribute index of the source attribute
+	 * @return the mapped attribute index or {@code -1}
+	 * @since 5.3
+	 */
+	int getAnnotationValueMapping(int attributeIndex) {
+		return this.annotationValueMappings[this.offset + attributeIndex];
+	}
+
+	/**
+	 * Get the mapping whose annotation provides the mapped annotation value,
+	 * or {@code null} if there is none.
+	 * @param attributeIndex the attribute index of the source attribute
+	 * @return the source mapping or {@code null}
+	 * @since 5.3
+	 */
+	@Nullable
+	MyAnnotationTypeMapping getAnnotationValueSource(int attributeIndex) {
+		return this.annotationValueSource[this.offset + attributeIndex];
 	}
 
 	/**
@@ -555,15 +731,15 @@ final class MyAnnotationTypeMapping {
 	 */
 	@Nullable
 	Object getMappedAnnotationValue(int attributeIndex, boolean metaAnnotationsOnly) {
-		int mappedIndex = this.annotationValueMappings[attributeIndex];
+		int mappedIndex = this.annotationValueMappings[this.offset + attributeIndex];
 		if (mappedIndex == -1) {
 			return null;
 		}
-		MyAnnotationTypeMapping source = this.annotationValueSource[attributeIndex];
+		MyAnnotationTypeMapping source = this.annotationValueSource[this.offset + attributeIndex];
 		if (source == this && metaAnnotationsOnly) {
 			return null;
 		}
-		return ReflectionUtils.invokeMethod(source.attributes.get(mappedIndex), source.annotation);
+		return source.attributeHandles.invoke(mappedIndex, source.annotation);
 	}
 
 	/**
@@ -601,6 +777,18 @@ final class MyAnnotationTypeMapping {
 	}
 
 
+	/**
+	 * Clear the caches of root-independent mapping data.
+	 * @since 5.3
+	 */
+	static void clearCache() {
+		aliasedByCache.clear();
+		multipleAliasedByCache.clear();
+		mirrorSetsCache.clear();
+		MyAliasForIndex.clearCache();
+		MyAliasVerifier.clearCache();
+	}
+
 	private static int[] filledIntArray(int size) {
 		int[] array = new int[size];
 		Arrays.fill(array, -1);
@@ -651,9 +839,10 @@ final class MyAnnotationTypeMapping {
 			ValueExtractor valueExtractor) {
 
 		AttributeMethods attributes = AttributeMethods.forAnnotationType(annotation.annotationType());
+		AttributeMethodHandles attributeHandles = AttributeMethodHandles.forAnnotationType(annotation.annotationType());
 		for (int i = 0; i < attributes.size(); i++) {
 			Method attribute = attributes.get(i);
-			Object value1 = ReflectionUtils.invokeMethod(attribute, annotation);
+			Object value1 = attributeHandles.invoke(i, annotation);
 			Object value2;
 			if (extractedValue instanceof MyTypeMappedAnnotation) {
 				value2 = ((MyTypeMappedAnnotation<?>) extractedValue).getValue(attribute.getName()).orElse(null);
@@ -672,18 +861,56 @@ final class MyAnnotationTypeMapping {
 	/**
 	 * A collection of {@link MirrorSet} instances that provides details of all
 	 * defined mirrors.
+	 * <p>Only depends on the annotation type, so that once all mappings have
+	 * been built, mappings of the same type with the same mirrors share one
+	 * instance.
 	 */
-	class MirrorSets {
+	static class MirrorSets {
+
+		private final Class<? extends Annotation> annotationType;
+
+		private final AttributeMethods attributes;
 
 		private MirrorSet[] mirrorSets;
 
 		private final MirrorSet[] assigned;
 
-		MirrorSets() {
+		MirrorSets(Class<? extends Annotation> annotationType, AttributeMethods attributes) {
+			this.annotationType = annotationType;
+			this.attributes = attributes;
 			this.assigned = new MirrorSet[attributes.size()];
 			this.mirrorSets = EMPTY_MIRROR_SETS;
 		}
 
+		/**
+		 * Restore mirror sets from the index of the mirror set assigned to each
+		 * attribute, or {@code -1} for attributes without mirrors.
+		 * @see #getAssignedIndex(int)
+		 */
+		MirrorSets(Class<? extends Annotation> annotationType, AttributeMethods attributes, int[] assignedIndexes) {
+			this.annotationType = annotationType;
+			this.attributes = attributes;
+			this.assigned = new MirrorSet[attributes.size()];
+			int count = 0;
+			for (int index : assignedIndexes) {
+				count = Math.max(count, index + 1);
+			}
+			MirrorSet[] mirrorSets = (count != 0 ? new MirrorSet[count] : EMPTY_MIRROR_SETS);
+			for (int i = 0; i < assignedIndexes.length; i++) {
+				int index = assignedIndexes[i];
+				if (index != -1) {
+					if (mirrorSets[index] == null) {
+						mirrorSets[index] = new MirrorSet();
+					}
+					this.assigned[i] = mirrorSets[index];
+				}
+			}
+			for (MirrorSet mirrorSet : mirrorSets) {
+				mirrorSet.update();
+			}
+			this.mirrorSets = mirrorSets;
+		}
+
 		void updateFrom(Collection<Method> aliases) {
 			MirrorSet mirrorSet = null;
 			int size = 0;
@@ -723,6 +950,22 @@ final class MyAnnotationTypeMapping {
 			return this.assigned[attributeIndex];
 		}
 
+		/**
+		 * Get the index of the mirror set assigned to the given attribute,
+		 * or {@code -1} if the attribute has no mirrors.
+		 */
+		int getAssignedIndex(int attributeIndex) {
+			MirrorSet mirrorSet = this.assigned[attributeIndex];
+			if (mirrorSet != null) {
+				for (int i = 0; i < this.mirrorSets.length; i++) {
+					if (this.mirrorSets[i] == mirrorSet) {
+						return i;
+					}
+				}
+			}
+			return -1;
+		}
+
 		int[] resolve(@Nullable Object source, @Nullable Object annotation, ValueExtractor valueExtractor) {
 			int[] result = new int[attributes.size()];
 			for (int i = 0; i < result.length; i++) {
@@ -778,7 +1021,7 @@ final class MyAnnotationTypeMapping {
 						throw new AnnotationConfigurationException(String.format(
 								"Different @AliasFor mirror values for annotation [%s]%s; attribute '%s' " +
 								"and its alias '%s' are declared with values of [%s] and [%s].",
-								getAnnotationType().getName(), on,
+								MirrorSets.this.annotationType.getName(), on,
 								attributes.get(result).getName(),
 								attribute.getName(),
 								ObjectUtils.nullSafeToString(lastValue),
@@ -805,4 +1048,42 @@ final class MyAnnotationTypeMapping {
 		}
 	}
 
+
+	/**
+	 * Cache key identifying {@link MirrorSets} by annotation type and the
+	 * mirror set assigned to each attribute.
+	 */
+	private static final class MirrorSetsKey {
+
+		private final Class<? extends Annotation> annotationType;
+
+		private final int[] assignedIndexes;
+
+		MirrorSetsKey(MirrorSets mirrorSets) {
+			this.annotationType = mirrorSets.annotationType;
+			this.assignedIndexes = new int[mirrorSets.assigned.length];
+			for (int i = 0; i < this.assignedIndexes.length; i++) {
+				this.assignedIndexes[i] = mirrorSets.getAssignedIndex(i);
+			}
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MirrorSetsKey)) {
+				return false;
+			}
+			MirrorSetsKey otherKey = (MirrorSetsKey) other;
+			return (this.annotationType == otherKey.annotationType &&
+					Arrays.equals(this.assignedIndexes, otherKey.assignedIndexes));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.annotationType.hashCode() + Arrays.hashCode(this.assignedIndexes);
+		}
+	}
+
 }
@@ -6,9 +6,14 @@ import org.springframework.util.ConcurrentReferenceHashMap;
 import java.lang.annotation.Annotation;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 final class MyAnnotationTypeMappings {
 
@@ -22,23 +27,96 @@ final class MyAnnotationTypeMappings {
 
     private final AnnotationFilter filter;
 
-    private final List<MyAnnotationTypeMapping> mappings;
+    private final boolean enableMultipleAliases;
+
+    private final MyAnnotationTypeMapping[] mappings;
+
+    private final int[] types;
+
+    private final int[] typeNames;
 
     private MyAnnotationTypeMappings(RepeatableContainers repeatableContainers, AnnotationFilter filter,
                                      Class<? extends Annotation> annotationType, boolean enableMultipleAliases) {
+        this(repeatableContainers, filter, annotationType, enableMultipleAliases,
+                !MyAliasVerifier.isVerified(annotationType));
+    }
+
+    private MyAnnotationTypeMappings(RepeatableContainers repeatableContainers, AnnotationFilter filter,
+                                     Class<? extends Annotation> annotationType, boolean enableMultipleAliases,
+                                     boolean validate) {
         this.repeatableContainers = repeatableContainers;
         this.filter = filter;
-        this.mappings = new ArrayList<>();
-        addAllMappings(annotationType, enableMultipleAliases);
-        this.mappings.forEach(MyAnnotationTypeMapping::afterAllMappingsSet);
+        this.enableMultipleAliases = enableMultipleAliases;
+        List<MyAnnotationTypeMapping> mappings = new ArrayList<>();
+        addAllMappings(mappings, annotationType, enableMultipleAliases);
+        if (validate) {
+            mappings.forEach(MyAnnotationTypeMapping::afterAllMappingsSet);
+        }
+        this.mappings = compact(mappings);
+        this.types = getTypeIds(this.mappings);
+        this.typeNames = getTypeNameIds(this.mappings);
     }
 
-    private void addAllMappings(Class<? extends Annotation> annotationType, boolean enableMultipleAliases) {
+    /**
+     * Create an instance from restored mappings.
+     *
+     * @see MyAnnotationTypeMappingsSnapshot
+     */
+    MyAnnotationTypeMappings(RepeatableContainers repeatableContainers, AnnotationFilter filter,
+                             boolean enableMultipleAliases, List<MyAnnotationTypeMapping> mappings) {
+        this.repeatableContainers = repeatableContainers;
+        this.filter = filter;
+        this.enableMultipleAliases = enableMultipleAliases;
+        this.mappings = compact(mappings);
+        this.types = getTypeIds(this.mappings);
+        this.typeNames = getTypeNameIds(this.mappings);
+    }
+
+    private static int[] getTypeIds(MyAnnotationTypeMapping[] mappings) {
+        int[] ids = AnnotationTypeIds.EMPTY_IDS;
+        for (MyAnnotationTypeMapping mapping : mappings) {
+            ids = AnnotationTypeIds.add(ids, AnnotationTypeIds.getTypeId(mapping.getAnnotationType()));
+        }
+        return ids;
+    }
+
+    private static int[] getTypeNameIds(MyAnnotationTypeMapping[] mappings) {
+        int[] ids = AnnotationTypeIds.EMPTY_IDS;
+        for (MyAnnotationTypeMapping mapping : mappings) {
+            ids = AnnotationTypeIds.add(ids, AnnotationTypeIds.getNameId(mapping.getAnnotationType().getName()));
+        }
+        return ids;
+    }
+
+    /**
+     * Pack the attribute tables of all mappings into flat tables indexed by
+     * mapping and attribute, so that a whole tree holds four arrays rather
+     * than four per mapping.
+     */
+    private static MyAnnotationTypeMapping[] compact(List<MyAnnotationTypeMapping> mappings) {
+        int attributeCount = 0;
+        for (MyAnnotationTypeMapping mapping : mappings) {
+            attributeCount += mapping.getAttributes().size();
+        }
+        int[] aliasMappings = new int[attributeCount];
+        int[] conventionMappings = new int[attributeCount];
+        int[] annotationValueMappings = new int[attributeCount];
+        MyAnnotationTypeMapping[] annotationValueSource = new MyAnnotationTypeMapping[attributeCount];
+        int offset = 0;
+        for (MyAnnotationTypeMapping mapping : mappings) {
+            mapping.compact(aliasMappings, conventionMappings, annotationValueMappings, annotationValueSource, offset);
+            offset += mapping.getAttributes().size();
+        }
+        return mappings.toArray(new MyAnnotationTypeMapping[0]);
+    }
+
+    private void addAllMappings(List<MyAnnotationTypeMapping> mappings, Class<? extends Annotation> annotationType,
+                                boolean enableMultipleAliases) {
         Deque<MyAnnotationTypeMapping> queue = new ArrayDeque<>();
         addIfPossible(queue, null, annotationType, null, enableMultipleAliases);
         while (!queue.isEmpty()) {
             MyAnnotationTypeMapping mapping = queue.removeFirst();
-            this.mappings.add(mapping);
+            mappings.add(mapping);
             addMetaAnnotationsToQueue(queue, mapping, enableMultipleAliases);
         }
     }
@@ -128,13 +206,57 @@ final class MyAnnotationTypeMappings {
     }
 
 
+    /**
+     * Create {@link AnnotationTypeMappings} supporting multiple aliases for
+     * the specified annotation type, using the standard repeatable containers
+     * and the {@link AnnotationFilter#PLAIN} filter.
+     *
+     * @param annotationType the source annotation type
+     * @return type mappings for the annotation type
+     */
+    static MyAnnotationTypeMappings forMultipleAnnotationType(Class<? extends Annotation> annotationType) {
+        return forMultipleAnnotationType(annotationType, RepeatableContainers.standardRepeatables(),
+                AnnotationFilter.PLAIN);
+    }
+
+    RepeatableContainers getRepeatableContainers() {
+        return this.repeatableContainers;
+    }
+
+    AnnotationFilter getFilter() {
+        return this.filter;
+    }
+
+    /**
+     * Return whether the mappings were built with support for multiple aliases.
+     */
+    boolean isMultipleAliasesEnabled() {
+        return this.enableMultipleAliases;
+    }
+
+    /**
+     * Determine if one of the mappings is for the given annotation type, or
+     * for an annotation type of the given name, with a binary search over the
+     * sorted ids of the mapped types.
+     *
+     * @param requiredType the annotation type or its fully qualified name
+     * @return {@code true} if the root or a meta-annotation mapping matches
+     */
+    boolean containsType(Object requiredType) {
+        if (requiredType instanceof Class) {
+            return AnnotationTypeIds.contains(this.types, AnnotationTypeIds.getTypeId((Class<?>) requiredType));
+        }
+        int nameId = AnnotationTypeIds.findNameId(requiredType.toString());
+        return AnnotationTypeIds.contains(this.typeNames, nameId);
+    }
+
     /**
      * Get the total number of contained mappings.
      *
      * @return the total number of mappings
      */
     int size() {
-        return this.mappings.size();
+        return this.mappings.length;
     }
 
     /**
@@ -148,7 +270,7 @@ final class MyAnnotationTypeMappings {
      *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
      */
     MyAnnotationTypeMapping get(int index) {
-        return this.mappings.get(index);
+        return this.mappings[index];
     }
 
     /**
@@ -196,7 +318,46 @@ final class MyAnnotationTypeMappings {
         return new MyAnnotationTypeMappings(repeatableContainers, annotationFilter, annotationType,false);
     }
     /**
-     * Cache created per {@link AnnotationFilter}.
+     * Build the mappings for the specified annotation type, with and without
+     * support for multiple aliases, and validate them regardless of the
+     * verified manifest. The built mappings are not cached.
+     *
+     * @param annotationType the annotation type to validate
+     * @throws AnnotationConfigurationException if an alias is misconfigured
+     * @see MyAliasVerifier
+     */
+    static void validate(Class<? extends Annotation> annotationType) {
+        new MyAnnotationTypeMappings(RepeatableContainers.standardRepeatables(), AnnotationFilter.PLAIN,
+                annotationType, false, true);
+        new MyAnnotationTypeMappings(RepeatableContainers.standardRepeatables(), AnnotationFilter.PLAIN,
+                annotationType, true, true);
+    }
+
+    /**
+     * Get all mappings currently held by the internal caches.
+     *
+     * @return the cached mappings
+     */
+    static List<MyAnnotationTypeMappings> getCachedMappings() {
+        List<MyAnnotationTypeMappings> result = new ArrayList<>();
+        standardRepeatablesCache.values().forEach(cache -> result.addAll(cache.values()));
+        noRepeatablesCache.values().forEach(cache -> result.addAll(cache.values()));
+        return result;
+    }
+
+    /**
+     * Clear the internal annotation type mappings caches.
+     */
+    static void clearCache() {
+        standardRepeatablesCache.clear();
+        noRepeatablesCache.clear();
+        AnnotationTypeMetadata.clear();
+        MyAnnotationTypeMapping.clearCache();
+    }
+
+    /**
+     * Cache created per {@link AnnotationFilter}, holding separate tables for
+     * mappings with and without support for multiple aliases.
      */
     private static class Cache {
 
@@ -204,7 +365,9 @@ final class MyAnnotationTypeMappings {
 
         private final AnnotationFilter filter;
 
-        private final Map<Class<? extends Annotation>, MyAnnotationTypeMappings> mappings;
+        private final ModeCache singleAliasMappings;
+
+        private final ModeCache multipleAliasMappings;
 
         /**
          * Create a cache instance with the specified filter.
@@ -214,7 +377,8 @@ final class MyAnnotationTypeMappings {
         Cache(RepeatableContainers repeatableContainers, AnnotationFilter filter) {
             this.repeatableContainers = repeatableContainers;
             this.filter = filter;
-            this.mappings = new ConcurrentReferenceHashMap<>();
+            this.singleAliasMappings = new ModeCache(false);
+            this.multipleAliasMappings = new ModeCache(true);
         }
 
         /**
@@ -225,7 +389,7 @@ final class MyAnnotationTypeMappings {
          * @return a new or existing {@link AnnotationTypeMappings} instance
          */
         MyAnnotationTypeMappings batchGet(Class<? extends Annotation> annotationType) {
-            return this.mappings.computeIfAbsent(annotationType, this::batchCreateMappings);
+            return this.multipleAliasMappings.getOrCreate(annotationType);
         }
 
         /**
@@ -235,18 +399,150 @@ final class MyAnnotationTypeMappings {
          * @return a new or existing {@link AnnotationTypeMappings} instance
          */
         MyAnnotationTypeMappings get(Class<? extends Annotation> annotationType) {
-            return this.mappings.computeIfAbsent(annotationType, this::createMappings);
+            return this.singleAliasMappings.getOrCreate(annotationType);
         }
 
-        MyAnnotationTypeMappings createMappings(Class<? extends Annotation> annotationType) {
-            return new MyAnnotationTypeMappings(this.repeatableContainers, this.filter, annotationType, false);
+        Collection<MyAnnotationTypeMappings> values() {
+            List<MyAnnotationTypeMappings> values = new ArrayList<>(this.singleAliasMappings.mappings.values());
+            values.addAll(this.multipleAliasMappings.mappings.values());
+            return values;
         }
 
         /**
-         * Supporting multiple aliases.
+         * Restore the mappings from the current snapshot, if any, or build them.
+         *
+         * @param enableMultipleAliases whether to support multiple aliases
+         */
+        MyAnnotationTypeMappings createMappings(Class<? extends Annotation> annotationType,
+                                                boolean enableMultipleAliases) {
+            MyAnnotationTypeMappings restored = MyAnnotationTypeMappingsSnapshot.restore(
+                    this.repeatableContainers, this.filter, annotationType, enableMultipleAliases);
+            if (restored != null) {
+                return restored;
+            }
+            return new MyAnnotationTypeMappings(this.repeatableContainers, this.filter, annotationType,
+                    enableMultipleAliases);
+        }
+
+        private String getCacheName(boolean enableMultipleAliases) {
+            return (this.repeatableContainers == RepeatableContainers.none() ? "noRepeatables" : "standardRepeatables") +
+                    "[" + this.filter + "]" + (enableMultipleAliases ? ".multipleAliases" : "");
+        }
+
+        private static MyAnnotationTypeMappings await(CompletableFuture<MyAnnotationTypeMappings> load) {
+            try {
+                return load.join();
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw ex;
+            }
+        }
+
+
+        /**
+         * Mappings of one alias mode, with their own statistics.
          */
-        MyAnnotationTypeMappings batchCreateMappings(Class<? extends Annotation> annotationType) {
-            return new MyAnnotationTypeMappings(this.repeatableContainers, this.filter, annotationType, true);
+        private class ModeCache {
+
+            private final boolean enableMultipleAliases;
+
+            private final int slot;
+
+            private final AnnotationCacheStatistics statistics;
+
+            private final Map<Class<? extends Annotation>, MyAnnotationTypeMappings> mappings;
+
+            private final ConcurrentMap<Class<? extends Annotation>, CompletableFuture<MyAnnotationTypeMappings>> loading =
+                    new ConcurrentHashMap<>();
+
+            ModeCache(boolean enableMultipleAliases) {
+                this.enableMultipleAliases = enableMultipleAliases;
+                this.slot = AnnotationTypeMetadata.getSlot(repeatableContainers, filter, enableMultipleAliases);
+                this.mappings = new ConcurrentReferenceHashMap<Class<? extends Annotation>, MyAnnotationTypeMappings>() {
+                    @Override
+                    protected ReferenceManager createReferenceManager() {
+                        return new ReferenceManager() {
+                            @Override
+                            @Nullable
+                            public Reference<Class<? extends Annotation>, MyAnnotationTypeMappings> pollForPurge() {
+                                Reference<Class<? extends Annotation>, MyAnnotationTypeMappings> reference = super.pollForPurge();
+                                if (reference != null) {
+                                    ModeCache.this.statistics.recordEviction();
+                                }
+                                return reference;
+                            }
+                        };
+                    }
+                };
+                this.statistics = AnnotationCacheStatistics.register(
+                        getCacheName(enableMultipleAliases), this.mappings::size);
+            }
+
+            /**
+             * Get the cached mappings, or build them without holding a lock of
+             * the cache map. Concurrent misses for the same annotation type wait
+             * for the thread that is already building its mappings.
+             */
+            MyAnnotationTypeMappings getOrCreate(Class<? extends Annotation> annotationType) {
+                AnnotationTypeMetadata metadata = (this.slot != -1 ?
+                        AnnotationTypeMetadata.forAnnotationType(annotationType) : null);
+                MyAnnotationTypeMappings result = (metadata != null ? metadata.getMappings(this.slot) : null);
+                if (result != null) {
+                    this.statistics.recordHit();
+                    return result;
+                }
+                result = this.mappings.get(annotationType);
+                if (result != null) {
+                    this.statistics.recordHit();
+                    publish(metadata, result);
+                    return result;
+                }
+                CompletableFuture<MyAnnotationTypeMappings> load = new CompletableFuture<>();
+                CompletableFuture<MyAnnotationTypeMappings> existing = this.loading.putIfAbsent(annotationType, load);
+                if (existing != null) {
+                    // Served by the in-flight build, neither a hit nor a load of its own
+                    this.statistics.recordWait();
+                    return await(existing);
+                }
+                this.statistics.recordMiss();
+                // Build outside of any map lock, so that other types are never blocked
+                try {
+                    result = this.mappings.get(annotationType);
+                    if (result == null) {
+                        long loadStartTime = System.nanoTime();
+                        result = createMappings(annotationType, this.enableMultipleAliases);
+                        MyAnnotationTypeMappings previous = this.mappings.putIfAbsent(annotationType, result);
+                        if (previous != null) {
+                            result = previous;
+                        }
+                        this.statistics.recordLoad(loadStartTime);
+                    }
+                    publish(metadata, result);
+                    load.complete(result);
+                    return result;
+                } catch (RuntimeException | Error ex) {
+                    load.completeExceptionally(ex);
+                    throw ex;
+                } finally {
+                    this.loading.remove(annotationType, load);
+                }
+            }
+
+            /**
+             * Publish the mappings into the holder obtained before they were
+             * looked up or built.
+             */
+            private void publish(@Nullable AnnotationTypeMetadata metadata, MyAnnotationTypeMappings result) {
+                if (metadata != null) {
+                    metadata.setMappings(this.slot, result);
+                }
+            }
         }
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,516 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of computed {@link MyAnnotationTypeMappings}, used to
+ * skip the meta-annotation traversal and alias resolution on later JVM starts.
+ *
+ * <p>{@link #write(File)} stores the mapping tables of all currently cached
+ * mappings: for each mapping, its annotation type, the position of its
+ * meta-annotation on the source annotation type, its alias, convention and
+ * annotation value mappings and its mirror sets. {@link #load(File)} memory-maps
+ * such a file, verifies its checksum and installs it; individual entries are
+ * only decoded when their root annotation type is first requested.
+ *
+ * <p>Before an entry is restored, the class file checksum of every annotation
+ * type it references is compared with the recorded one. Entries that do not
+ * match, for example because an annotation changed since the snapshot was
+ * written, are ignored and the mappings are built as usual. Only mappings for
+ * the standard repeatable containers (or none) and the {@link AnnotationFilter#PLAIN
+ * PLAIN}, {@link AnnotationFilter#JAVA JAVA} and {@link AnnotationFilter#ALL ALL}
+ * filters are stored.
+ *
+ * <p>A snapshot can also be loaded on startup through the
+ * {@value #SNAPSHOT_PROPERTY_NAME} property.
+ *
+ * @author ZiCheng Zhang
+ * @since 5.3
+ * @see MyAnnotationTypeMappings
+ */
+public final class MyAnnotationTypeMappingsSnapshot {
+
+	/**
+	 * System property holding the location of a snapshot file to load when
+	 * annotation type mappings are first requested:
+	 * {@code "spring.annotation.mappings.snapshot"}.
+	 */
+	public static final String SNAPSHOT_PROPERTY_NAME = "spring.annotation.mappings.snapshot";
+
+	private static final int MAGIC = 0x4D41544D;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final AnnotationFilter[] FILTERS = {AnnotationFilter.PLAIN, AnnotationFilter.JAVA,
+			AnnotationFilter.ALL};
+
+	private static final Log logger = LogFactory.getLog(MyAnnotationTypeMappingsSnapshot.class);
+
+	private static final Map<Class<?>, Long> classChecksums = new ConcurrentReferenceHashMap<>();
+
+	@Nullable
+	private static volatile MyAnnotationTypeMappingsSnapshot current = loadFromProperty();
+
+
+	private final ByteBuffer buffer;
+
+	private final Map<String, Integer> offsets;
+
+	private final LongAdder restoredCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+
+	private MyAnnotationTypeMappingsSnapshot(ByteBuffer buffer, Map<String, Integer> offsets) {
+		this.buffer = buffer;
+		this.offsets = offsets;
+	}
+
+
+	/**
+	 * Return the number of mappings stored in this snapshot.
+	 */
+	public int getEntryCount() {
+		return this.offsets.size();
+	}
+
+	/**
+	 * Return the number of mappings restored from this snapshot so far.
+	 */
+	public long getRestoredCount() {
+		return this.restoredCount.sum();
+	}
+
+	/**
+	 * Return the number of stored mappings that were found to be stale
+	 * and built from scratch instead.
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	@Nullable
+	private MyAnnotationTypeMappings restoreEntry(RepeatableContainers repeatableContainers,
+			AnnotationFilter filter, Class<? extends Annotation> annotationType, boolean enableMultipleAliases) {
+
+		Integer offset = this.offsets.get(getKey(repeatableContainers, filter, annotationType.getName(),
+				enableMultipleAliases));
+		if (offset == null) {
+			return null;
+		}
+		ByteBuffer entry = this.buffer.duplicate();
+		entry.position(offset);
+		List<MyAnnotationTypeMapping> mappings = new ArrayList<>();
+		try {
+			int mappingCount = entry.getInt();
+			for (int i = 0; i < mappingCount; i++) {
+				MyAnnotationTypeMapping mapping = readMapping(entry, mappings, annotationType, repeatableContainers);
+				if (mapping == null) {
+					this.rejectedCount.increment();
+					return null;
+				}
+				mappings.add(mapping);
+			}
+		}
+		catch (RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to restore annotation type mappings for " + annotationType.getName(), ex);
+			}
+			this.rejectedCount.increment();
+			return null;
+		}
+		this.restoredCount.increment();
+		return new MyAnnotationTypeMappings(repeatableContainers, filter, enableMultipleAliases, mappings);
+	}
+
+	@Nullable
+	private static MyAnnotationTypeMapping readMapping(ByteBuffer entry, List<MyAnnotationTypeMapping> mappings,
+			Class<? extends Annotation> rootType, RepeatableContainers repeatableContainers) {
+
+		String typeName = readString(entry);
+		long checksum = entry.getLong();
+		int sourceIndex = entry.getInt();
+		int declaredIndex = entry.getInt();
+		int repeatedIndex = entry.getInt();
+		MyAnnotationTypeMapping source = (sourceIndex != -1 ? mappings.get(sourceIndex) : null);
+		Annotation annotation = null;
+		Class<? extends Annotation> annotationType = rootType;
+		if (source != null) {
+			Annotation[] declared = AnnotationsScanner.getDeclaredAnnotations(source.getAnnotationType(), false);
+			if (declaredIndex >= declared.length) {
+				return null;
+			}
+			annotation = declared[declaredIndex];
+			if (repeatedIndex != -1) {
+				Annotation[] repeated = repeatableContainers.findRepeatedAnnotations(annotation);
+				if (repeated == null || repeatedIndex >= repeated.length) {
+					return null;
+				}
+				annotation = repeated[repeatedIndex];
+			}
+			annotationType = annotation.annotationType();
+		}
+		if (!annotationType.getName().equals(typeName) || getClassChecksum(annotationType) != checksum) {
+			return null;
+		}
+		int attributeCount = entry.getInt();
+		if (attributeCount != AttributeMethods.forAnnotationType(annotationType).size()) {
+			return null;
+		}
+		int[] aliasMappings = readInts(entry, attributeCount);
+		int[] conventionMappings = readInts(entry, attributeCount);
+		int[] annotationValueMappings = readInts(entry, attributeCount);
+		int[] annotationValueSourceIndexes = readInts(entry, attributeCount);
+		int[] mirrorSetIndexes = readInts(entry, attributeCount);
+		boolean synthesizable = (entry.get() != 0);
+		MyAnnotationTypeMapping[] annotationValueSource = new MyAnnotationTypeMapping[attributeCount];
+		MyAnnotationTypeMapping mapping = new MyAnnotationTypeMapping(source, annotationType, annotation,
+				aliasMappings, conventionMappings, annotationValueMappings, annotationValueSource,
+				mirrorSetIndexes, synthesizable);
+		// Value sources are the mapping itself or one of its (earlier) sources
+		for (int i = 0; i < attributeCount; i++) {
+			int index = annotationValueSourceIndexes[i];
+			if (index != -1) {
+				annotationValueSource[i] = (index == mappings.size() ? mapping : mappings.get(index));
+			}
+		}
+		return mapping;
+	}
+
+
+	/**
+	 * Write the mapping tables of all currently cached annotation type mappings
+	 * to the given file.
+	 * @param file the file to write to
+	 * @return the number of stored mappings
+	 * @throws IOException on write failure
+	 */
+	public static int write(File file) throws IOException {
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(payload);
+		int count = 0;
+		for (MyAnnotationTypeMappings mappings : MyAnnotationTypeMappings.getCachedMappings()) {
+			byte[] entry = writeEntry(mappings);
+			if (entry != null) {
+				out.write(entry);
+				count++;
+			}
+		}
+		out.flush();
+		byte[] bytes = payload.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+		try (OutputStream fileOut = new FileOutputStream(file)) {
+			DataOutputStream header = new DataOutputStream(fileOut);
+			header.writeInt(MAGIC);
+			header.writeInt(VERSION);
+			header.writeInt(count);
+			header.writeInt((int) crc.getValue());
+			header.write(bytes);
+			header.flush();
+		}
+		return count;
+	}
+
+	@Nullable
+	private static byte[] writeEntry(MyAnnotationTypeMappings mappings) throws IOException {
+		int filterIndex = getFilterIndex(mappings.getFilter());
+		RepeatableContainers repeatableContainers = mappings.getRepeatableContainers();
+		if (filterIndex == -1 || (repeatableContainers != RepeatableContainers.standardRepeatables() &&
+				repeatableContainers != RepeatableContainers.none()) || mappings.size() == 0) {
+			return null;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		writeString(out, getKey(repeatableContainers, mappings.getFilter(),
+				mappings.get(0).getAnnotationType().getName(), mappings.isMultipleAliasesEnabled()));
+		out.writeInt(mappings.size());
+		for (int i = 0; i < mappings.size(); i++) {
+			if (!writeMapping(out, mappings, mappings.get(i), repeatableContainers)) {
+				return null;
+			}
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static boolean writeMapping(DataOutputStream out, MyAnnotationTypeMappings mappings,
+			MyAnnotationTypeMapping mapping, RepeatableContainers repeatableContainers) throws IOException {
+
+		long checksum = getClassChecksum(mapping.getAnnotationType());
+		if (checksum == -1) {
+			return false;
+		}
+		int declaredIndex = -1;
+		int repeatedIndex = -1;
+		MyAnnotationTypeMapping source = mapping.getSource();
+		if (source != null) {
+			Annotation[] declared = AnnotationsScanner.getDeclaredAnnotations(source.getAnnotationType(), false);
+			for (int i = 0; i < declared.length && declaredIndex == -1; i++) {
+				if (declared[i] == mapping.getAnnotation()) {
+					declaredIndex = i;
+				}
+				else {
+					Annotation[] repeated = repeatableContainers.findRepeatedAnnotations(declared[i]);
+					for (int j = 0; repeated != null && j < repeated.length; j++) {
+						if (repeated[j] == mapping.getAnnotation()) {
+							declaredIndex = i;
+							repeatedIndex = j;
+						}
+					}
+				}
+			}
+			if (declaredIndex == -1) {
+				return false;
+			}
+		}
+		writeString(out, mapping.getAnnotationType().getName());
+		out.writeLong(checksum);
+		out.writeInt(source != null ? indexOf(mappings, source) : -1);
+		out.writeInt(declaredIndex);
+		out.writeInt(repeatedIndex);
+		int attributeCount = mapping.getAttributes().size();
+		out.writeInt(attributeCount);
+		for (int i = 0; i < attributeCount; i++) {
+			out.writeInt(mapping.getAliasMapping(i));
+		}
+		for (int i = 0; i < attributeCount; i++) {
+			out.writeInt(mapping.getConventionMapping(i));
+		}
+		for (int i = 0; i < attributeCount; i++) {
+			out.writeInt(mapping.getAnnotationValueMapping(i));
+		}
+		for (int i = 0; i < attributeCount; i++) {
+			MyAnnotationTypeMapping valueSource = mapping.getAnnotationValueSource(i);
+			out.writeInt(valueSource != null ? indexOf(mappings, valueSource) : -1);
+		}
+		for (int i = 0; i < attributeCount; i++) {
+			out.writeInt(mapping.getMirrorSets().getAssignedIndex(i));
+		}
+		out.writeByte(mapping.isSynthesizable() ? 1 : 0);
+		return true;
+	}
+
+	/**
+	 * Memory-map the given snapshot file and use it for annotation type mappings
+	 * created from now on. Mappings that are already cached are not affected;
+	 * consider calling {@link MyAnnotatedElementUtils#clearCache()} first.
+	 * @param file the snapshot file
+	 * @return the installed snapshot
+	 * @throws IOException if the file cannot be read or is not a valid snapshot
+	 */
+	public static MyAnnotationTypeMappingsSnapshot load(File file) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not an annotation type mappings snapshot: " + file);
+		}
+		int count = buffer.getInt(8);
+		int checksum = buffer.getInt(12);
+		ByteBuffer payload = buffer.duplicate();
+		payload.position(HEADER_SIZE);
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		if ((int) crc.getValue() != checksum) {
+			throw new IOException("Corrupt annotation type mappings snapshot: " + file);
+		}
+		Map<String, Integer> offsets = new HashMap<>(count * 2);
+		ByteBuffer index = buffer.duplicate();
+		index.position(HEADER_SIZE);
+		try {
+			for (int i = 0; i < count; i++) {
+				String key = readString(index);
+				offsets.put(key, index.position());
+				skipEntry(index);
+			}
+		}
+		catch (RuntimeException ex) {
+			throw new IOException("Corrupt annotation type mappings snapshot: " + file, ex);
+		}
+		MyAnnotationTypeMappingsSnapshot snapshot = new MyAnnotationTypeMappingsSnapshot(buffer, offsets);
+		current = snapshot;
+		return snapshot;
+	}
+
+	/**
+	 * Stop using the current snapshot, if any.
+	 */
+	public static void unload() {
+		current = null;
+	}
+
+	/**
+	 * Return the currently installed snapshot, or {@code null} if none.
+	 */
+	@Nullable
+	public static MyAnnotationTypeMappingsSnapshot getCurrent() {
+		return current;
+	}
+
+	/**
+	 * Restore mappings from the current snapshot.
+	 * @return the restored mappings, or {@code null} if there is no current
+	 * snapshot or it holds no valid entry for the given arguments
+	 */
+	@Nullable
+	static MyAnnotationTypeMappings restore(RepeatableContainers repeatableContainers, AnnotationFilter filter,
+			Class<? extends Annotation> annotationType, boolean enableMultipleAliases) {
+
+		MyAnnotationTypeMappingsSnapshot snapshot = current;
+		return (snapshot != null ?
+				snapshot.restoreEntry(repeatableContainers, filter, annotationType, enableMultipleAliases) : null);
+	}
+
+	@Nullable
+	private static MyAnnotationTypeMappingsSnapshot loadFromProperty() {
+		String location = SpringProperties.getProperty(SNAPSHOT_PROPERTY_NAME);
+		if (!StringUtils.hasText(location)) {
+			return null;
+		}
+		File file = new File(location.trim());
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			MyAnnotationTypeMappingsSnapshot snapshot = load(file);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + snapshot.getEntryCount() + " annotation type mappings from " + file);
+			}
+			return snapshot;
+		}
+		catch (IOException ex) {
+			logger.warn("Ignoring annotation type mappings snapshot " + file + ": " + ex.getMessage());
+			return null;
+		}
+	}
+
+	private static void skipEntry(ByteBuffer buffer) {
+		int mappingCount = buffer.getInt();
+		for (int i = 0; i < mappingCount; i++) {
+			readString(buffer);
+			buffer.position(buffer.position() + 8 + 4 + 4 + 4);
+			int attributeCount = buffer.getInt();
+			buffer.position(buffer.position() + attributeCount * 5 * 4 + 1);
+		}
+	}
+
+	private static String getKey(RepeatableContainers repeatableContainers, AnnotationFilter filter,
+			String annotationTypeName, boolean enableMultipleAliases) {
+
+		return (repeatableContainers == RepeatableContainers.none() ? 'N' : 'S') + "" +
+				getFilterIndex(filter) + (enableMultipleAliases ? 'M' : 'S') + annotationTypeName;
+	}
+
+	private static int getFilterIndex(AnnotationFilter filter) {
+		for (int i = 0; i < FILTERS.length; i++) {
+			if (FILTERS[i] == filter) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOf(MyAnnotationTypeMappings mappings, MyAnnotationTypeMapping mapping) {
+		for (int i = 0; i < mappings.size(); i++) {
+			if (mappings.get(i) == mapping) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("Mapping for " + mapping.getAnnotationType().getName() +
+				" not part of " + mappings.get(0).getAnnotationType().getName() + " mappings");
+	}
+
+	/**
+	 * Return the CRC-32 checksum of the class file of the given type,
+	 * or {@code -1} if the class file is not available.
+	 */
+	private static long getClassChecksum(Class<?> type) {
+		return classChecksums.computeIfAbsent(type, MyAnnotationTypeMappingsSnapshot::computeClassChecksum);
+	}
+
+	private static long computeClassChecksum(Class<?> type) {
+		String resourceName = type.getName().replace('.', '/') + ".class";
+		ClassLoader classLoader = type.getClassLoader();
+		try (InputStream in = (classLoader != null ? classLoader.getResourceAsStream(resourceName) :
+				ClassLoader.getSystemResourceAsStream(resourceName))) {
+			if (in == null) {
+				return -1;
+			}
+			CRC32 crc = new CRC32();
+			byte[] chunk = new byte[4096];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				crc.update(chunk, 0, read);
+			}
+			return crc.getValue();
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+	}
+
+	private static int[] readInts(ByteBuffer buffer, int count) {
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = buffer.getInt();
+		}
+		return values;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+}
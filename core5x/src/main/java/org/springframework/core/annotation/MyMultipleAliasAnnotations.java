@@ -5,6 +5,7 @@ import org.springframework.lang.Nullable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -310,14 +311,10 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 								return result;
 							}
 						}
-						if (!this.directOnly) {
-							MyAnnotationTypeMappings mappings = MyAnnotationTypeMappings.forAnnotationType(type);
-							for (int i = 0; i < mappings.size(); i++) {
-								MyAnnotationTypeMapping mapping = mappings.get(i);
-								if (isMappingForType(mapping, this.annotationFilter, requiredType)) {
-									return Boolean.TRUE;
-								}
-							}
+						// The required type itself is not filtered, see isPresent
+						if (!this.directOnly &&
+								MyAnnotationTypeMappings.forMultipleAnnotationType(type).containsType(requiredType)) {
+							return Boolean.TRUE;
 						}
 					}
 				}
@@ -490,7 +487,8 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 			this.annotations = annotations;
 			this.mappings = new MyAnnotationTypeMappings[annotations.size()];
 			for (int i = 0; i < annotations.size(); i++) {
-				this.mappings[i] = MyAnnotationTypeMappings.forAnnotationType(annotations.get(i).annotationType());
+				this.mappings[i] = MyAnnotationTypeMappings.forMultipleAnnotationType(
+						annotations.get(i).annotationType());
 			}
 		}
 
@@ -521,6 +519,14 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 	/**
 	 * {@link Spliterator} used to consume merged annotations from the
 	 * aggregates in distance fist order.
+	 * <p>Within an aggregate, merged annotations are returned ordered by
+	 * distance, then by annotation index, then by mapping index. A spliterator
+	 * can therefore be split either across a range of aggregates or, once only
+	 * a single aggregate is left, across a range of distances, without changing
+	 * the encounter order.
+	 * <p>The estimated size is the exact number of suitable mappings left.
+	 * {@link #SIZED} is not reported since a merged annotation is skipped if
+	 * it cannot be introspected.
 	 */
 	private class AggregatesSpliterator<A extends Annotation> implements Spliterator<MergedAnnotation<A>> {
 
@@ -531,18 +537,33 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 
 		private int aggregateCursor;
 
+		private final int aggregateEnd;
+
+		private int minDistance;
+
+		private final int maxDistance;
+
 		@Nullable
 		private int[] mappingCursors;
 
 		AggregatesSpliterator(@Nullable Object requiredType, List<Aggregate> aggregates) {
+			this(requiredType, aggregates, 0, aggregates.size(), 0, Integer.MAX_VALUE);
+		}
+
+		private AggregatesSpliterator(@Nullable Object requiredType, List<Aggregate> aggregates,
+				int aggregateCursor, int aggregateEnd, int minDistance, int maxDistance) {
+
 			this.requiredType = requiredType;
 			this.aggregates = aggregates;
-			this.aggregateCursor = 0;
+			this.aggregateCursor = aggregateCursor;
+			this.aggregateEnd = aggregateEnd;
+			this.minDistance = minDistance;
+			this.maxDistance = maxDistance;
 		}
 
 		@Override
 		public boolean tryAdvance(Consumer<? super MergedAnnotation<A>> action) {
-			while (this.aggregateCursor < this.aggregates.size()) {
+			while (this.aggregateCursor < this.aggregateEnd) {
 				Aggregate aggregate = this.aggregates.get(this.aggregateCursor);
 				if (tryAdvance(aggregate, action)) {
 					return true;
@@ -565,7 +586,7 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 					annotationResult = annotationIndex;
 					lowestDistance = mapping.getDistance();
 				}
-				if (lowestDistance == 0) {
+				if (lowestDistance == this.minDistance) {
 					break;
 				}
 			}
@@ -590,7 +611,10 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 				MyAnnotationTypeMapping mapping;
 				do {
 					mapping = aggregate.getMapping(annotationIndex, cursors[annotationIndex]);
-					if (mapping != null && isMappingForType(mapping, annotationFilter, this.requiredType)) {
+					if (mapping != null && mapping.getDistance() >= this.maxDistance) {
+						return null;
+					}
+					if (mapping != null && isSuitable(mapping)) {
 						return mapping;
 					}
 					cursors[annotationIndex]++;
@@ -600,25 +624,91 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 			return null;
 		}
 
+		private boolean isSuitable(MyAnnotationTypeMapping mapping) {
+			return (mapping.getDistance() >= this.minDistance && mapping.getDistance() < this.maxDistance &&
+					isMappingForType(mapping, annotationFilter, this.requiredType));
+		}
+
 		@Override
 		@Nullable
 		public Spliterator<MergedAnnotation<A>> trySplit() {
+			if (this.mappingCursors != null) {
+				// The current aggregate has been partly consumed: the prefix is ours
+				return null;
+			}
+			int remaining = this.aggregateEnd - this.aggregateCursor;
+			if (remaining > 1) {
+				int splitIndex = this.aggregateCursor + remaining / 2;
+				AggregatesSpliterator<A> prefix = new AggregatesSpliterator<>(this.requiredType, this.aggregates,
+						this.aggregateCursor, splitIndex, this.minDistance, this.maxDistance);
+				this.aggregateCursor = splitIndex;
+				return prefix;
+			}
+			if (remaining == 1) {
+				int splitDistance = getSplitDistance(this.aggregates.get(this.aggregateCursor));
+				if (splitDistance != -1) {
+					AggregatesSpliterator<A> prefix = new AggregatesSpliterator<>(this.requiredType, this.aggregates,
+							this.aggregateCursor, this.aggregateEnd, this.minDistance, splitDistance);
+					this.minDistance = splitDistance;
+					return prefix;
+				}
+			}
 			return null;
 		}
 
+		/**
+		 * Return the distance that splits the suitable mappings of the given
+		 * aggregate into two halves as even as possible, or {@code -1} if they
+		 * all have the same distance.
+		 */
+		private int getSplitDistance(Aggregate aggregate) {
+			int[] counts = new int[0];
+			int total = 0;
+			for (int annotationIndex = 0; annotationIndex < aggregate.size(); annotationIndex++) {
+				MyAnnotationTypeMappings mappings = aggregate.getMappings(annotationIndex);
+				for (int mappingIndex = 0; mappingIndex < mappings.size(); mappingIndex++) {
+					MyAnnotationTypeMapping mapping = mappings.get(mappingIndex);
+					if (isSuitable(mapping)) {
+						if (mapping.getDistance() >= counts.length) {
+							counts = Arrays.copyOf(counts, mapping.getDistance() + 1);
+						}
+						counts[mapping.getDistance()]++;
+						total++;
+					}
+				}
+			}
+			int splitDistance = -1;
+			int bestImbalance = Integer.MAX_VALUE;
+			int prefixCount = 0;
+			for (int distance = 0; distance < counts.length; distance++) {
+				if (prefixCount > 0 && prefixCount < total) {
+					int imbalance = Math.abs(total - 2 * prefixCount);
+					if (imbalance < bestImbalance) {
+						splitDistance = distance;
+						bestImbalance = imbalance;
+					}
+				}
+				prefixCount += counts[distance];
+			}
+			return splitDistance;
+		}
+
 		@Override
 		public long estimateSize() {
-			int size = 0;
-			for (int aggregateIndex = this.aggregateCursor;
-				 aggregateIndex < this.aggregates.size(); aggregateIndex++) {
+			long size = 0;
+			for (int aggregateIndex = this.aggregateCursor; aggregateIndex < this.aggregateEnd; aggregateIndex++) {
 				Aggregate aggregate = this.aggregates.get(aggregateIndex);
 				for (int annotationIndex = 0; annotationIndex < aggregate.size(); annotationIndex++) {
 					MyAnnotationTypeMappings mappings = aggregate.getMappings(annotationIndex);
-					int numberOfMappings = mappings.size();
+					int mappingIndex = 0;
 					if (aggregateIndex == this.aggregateCursor && this.mappingCursors != null) {
-						numberOfMappings -= Math.min(this.mappingCursors[annotationIndex], mappings.size());
+						mappingIndex = this.mappingCursors[annotationIndex];
+					}
+					for (; mappingIndex < mappings.size(); mappingIndex++) {
+						if (isSuitable(mappings.get(mappingIndex))) {
+							size++;
+						}
 					}
-					size += numberOfMappings;
 				}
 			}
 			return size;
@@ -626,7 +716,7 @@ final class MyMultipleAliasAnnotations implements MergedAnnotations {
 
 		@Override
 		public int characteristics() {
-			return NONNULL | IMMUTABLE;
+			return NONNULL | IMMUTABLE | ORDERED;
 		}
 	}
 
@@ -391,7 +391,9 @@ final class MyTypeMappedAnnotation<A extends Annotation> extends AbstractMergedA
 		}
 		if (mapping.getDistance() == 0) {
 			Method attribute = mapping.getAttributes().get(attributeIndex);
-			Object result = this.valueExtractor.extract(attribute, this.rootAttributes);
+			Object result = (this.valueExtractor == mapping.getAttributeHandles() ?
+					mapping.getAttributeHandles().invoke(attributeIndex, this.rootAttributes) :
+					this.valueExtractor.extract(attribute, this.rootAttributes));
 			return (result != null ? result : attribute.getDefaultValue());
 		}
 		return getValueFromMetaAnnotation(attributeIndex, forMirrorResolution);
@@ -404,8 +406,7 @@ final class MyTypeMappedAnnotation<A extends Annotation> extends AbstractMergedA
 			value = this.mapping.getMappedAnnotationValue(attributeIndex, forMirrorResolution);
 		}
 		if (value == null) {
-			Method attribute = this.mapping.getAttributes().get(attributeIndex);
-			value = ReflectionUtils.invokeMethod(attribute, this.mapping.getAnnotation());
+			value = this.mapping.getAttributeHandles().invoke(attributeIndex, this.mapping.getAnnotation());
 		}
 		return value;
 	}
@@ -526,7 +527,7 @@ final class MyTypeMappedAnnotation<A extends Annotation> extends AbstractMergedA
 
 	private ValueExtractor getValueExtractor(Object value) {
 		if (value instanceof Annotation) {
-			return ReflectionUtils::invokeMethod;
+			return AttributeMethodHandles.forAnnotationType(((Annotation) value).annotationType());
 		}
 		if (value instanceof Map) {
 			return MyTypeMappedAnnotation::extractFromMap;
@@ -586,7 +587,8 @@ final class MyTypeMappedAnnotation<A extends Annotation> extends AbstractMergedA
 	static <A extends Annotation> MergedAnnotation<A> from(@Nullable Object source, A annotation) {
 		Assert.notNull(annotation, "Annotation must not be null");
 		MyAnnotationTypeMappings mappings = MyAnnotationTypeMappings.forAnnotationType(annotation.annotationType());
-		return new MyTypeMappedAnnotation<>(mappings.get(0), null, source, annotation, ReflectionUtils::invokeMethod, 0);
+		return new MyTypeMappedAnnotation<>(mappings.get(0), null, source, annotation,
+				mappings.get(0).getAttributeHandles(), 0);
 	}
 
 	static <A extends Annotation> MergedAnnotation<A> of(
@@ -620,7 +622,7 @@ final class MyTypeMappedAnnotation<A extends Annotation> extends AbstractMergedA
 			int aggregateIndex, IntrospectionFailureLogger logger) {
 
 		return createIfPossible(mapping, source, annotation,
-				ReflectionUtils::invokeMethod, aggregateIndex, logger);
+				mapping.getRoot().getAttributeHandles(), aggregateIndex, logger);
 	}
 
 	@Nullable
@@ -0,0 +1,57 @@
+package org.springframework.core.annotation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AnnotationCacheStatistics}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class AnnotationCacheStatisticsTests {
+
+    @After
+    public void unregisterMBeans() {
+        AnnotationCacheStatistics.unregisterMBeans();
+    }
+
+    @Test
+    public void mappingLookupsAreRecorded() {
+        MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        long hits = totalHitCount();
+
+        MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+
+        assertTrue(totalHitCount() > hits);
+        for (AnnotationCacheStatistics statistics : AnnotationCacheStatistics.getAll()) {
+            assertEquals(statistics.getMissCount(), statistics.getLoadCount());
+        }
+    }
+
+    @Test
+    public void registerMBeans() throws Exception {
+        MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        AnnotationCacheStatistics.registerMBeans(server);
+        for (AnnotationCacheStatistics statistics : AnnotationCacheStatistics.getAll()) {
+            assertTrue(server.isRegistered(statistics.getObjectName()));
+            assertEquals(statistics.getCacheName(), server.getAttribute(statistics.getObjectName(), "CacheName"));
+        }
+        assertTrue(!AnnotationCacheStatistics.getAll().isEmpty());
+    }
+
+    private static long totalHitCount() {
+        long hits = 0;
+        for (AnnotationCacheStatistics statistics : AnnotationCacheStatistics.getAll()) {
+            hits += statistics.getHitCount();
+        }
+        return hits;
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AnnotationCacheWarmUp}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class AnnotationCacheWarmUpTests {
+
+    @Test
+    public void warmUpReportsTimePerClass() {
+        List<Class<?>> classes = Arrays.<Class<?>>asList(AlisforsTests.Element1.class, AlisforsTests.Element3.class,
+                AlisforsTests.Element4.class, AlisforsTests.Element1.class);
+        Set<Class<? extends Annotation>> annotationTypes = new HashSet<Class<? extends Annotation>>(
+                Arrays.asList(AlisforsTests.Test1.class, AlisforsTests.Test5.class));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            AnnotationCacheWarmUp.Report report = AnnotationCacheWarmUp.warmUp(classes, annotationTypes, executor);
+            assertEquals(3, report.getTimes().size());
+            assertEquals(AlisforsTests.Element1.class, report.getTimes().keySet().iterator().next());
+            assertTrue(report.getFailures().isEmpty());
+            assertTrue(report.getTotalTime() > 0);
+        } finally {
+            executor.shutdown();
+        }
+        int cachedMappings = 0;
+        for (AnnotationCacheStatistics statistics : AnnotationCacheStatistics.getAll()) {
+            cachedMappings += statistics.getSize();
+        }
+        assertTrue(cachedMappings > 0);
+    }
+
+    @Test
+    public void findClassesInPackage() throws IOException {
+        List<Class<?>> classes = AnnotationCacheWarmUp.findClasses(
+                Collections.singleton("org.springframework.core.annotation"), getClass().getClassLoader());
+        assertTrue(classes.contains(AlisforsTests.Element1.class));
+        assertTrue(classes.contains(AnnotationCacheWarmUp.class));
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.springframework.core.annotation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the merged annotation cache of {@link MyAnnotatedElementUtils}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class MergedAnnotationCacheTests {
+
+    @Before
+    public void enableCaching() {
+        MyAnnotatedElementUtils.setMergedAnnotationCaching(true);
+    }
+
+    @After
+    public void disableCaching() {
+        MyAnnotatedElementUtils.setMergedAnnotationCaching(false);
+    }
+
+    @Test
+    public void resultIsCached() {
+        AlisforsTests.Test5 first = MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        AlisforsTests.Test5 second = MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        assertSame(first, second);
+        assertEquals("override the method", second.test1());
+    }
+
+    @Test
+    public void absentResultIsCached() {
+        AnnotationCacheStatistics statistics = AnnotationCacheStatistics.get("mergedAnnotationCache");
+        statistics.reset();
+        assertNull(MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element1.class, AlisforsTests.Test5.class));
+        assertNull(MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element1.class, AlisforsTests.Test5.class));
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getHitCount());
+    }
+
+    @Test
+    public void clearCacheDropsResults() {
+        AlisforsTests.Test5 first = MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        MyAnnotatedElementUtils.clearCache();
+        AlisforsTests.Test5 second = MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        assertNotSame(first, second);
+        assertEquals(first, second);
+    }
+
+}
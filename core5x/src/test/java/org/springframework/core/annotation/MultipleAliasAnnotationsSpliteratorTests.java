@@ -0,0 +1,114 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for splitting the {@link Spliterator} of {@link MyMultipleAliasAnnotations}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class MultipleAliasAnnotationsSpliteratorTests {
+
+    @Test
+    public void parallelStreamKeepsEncounterOrder() {
+        MergedAnnotations annotations = annotationsOf(Child.class);
+        List<String> sequential = describe(annotations.stream().collect(Collectors.toList()));
+        List<String> parallel = describe(annotations.stream().parallel().collect(Collectors.toList()));
+        assertEquals(7, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void estimateSizeIsExact() {
+        MergedAnnotations annotations = annotationsOf(Child.class);
+        Spliterator<MergedAnnotation<Annotation>> spliterator = annotations.spliterator();
+        assertEquals(7, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.tryAdvance(annotation -> {
+        }));
+        assertEquals(6, spliterator.estimateSize());
+        assertEquals(2, annotationsOf(Child.class).stream(Outer.class).spliterator().estimateSize());
+    }
+
+    @Test
+    public void splitsAcrossAggregatesThenDistances() {
+        Spliterator<MergedAnnotation<Annotation>> suffix = annotationsOf(Child.class).spliterator();
+        Spliterator<MergedAnnotation<Annotation>> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(7, prefix.estimateSize() + suffix.estimateSize());
+        List<String> all = new ArrayList<>();
+        drain(prefix, all);
+        drain(suffix, all);
+        assertEquals(describe(annotationsOf(Child.class).stream().collect(Collectors.toList())), all);
+
+        Spliterator<MergedAnnotation<Annotation>> single = annotationsOf(Parent.class).spliterator();
+        Spliterator<MergedAnnotation<Annotation>> nearest = single.trySplit();
+        assertNotNull(nearest);
+        assertEquals(1, nearest.estimateSize());
+        assertEquals(2, single.estimateSize());
+        assertNull(nearest.trySplit());
+    }
+
+    private static MergedAnnotations annotationsOf(Class<?> type) {
+        return MyMultipleAliasAnnotations.from(type, SearchStrategy.TYPE_HIERARCHY,
+                RepeatableContainers.none(), AnnotationFilter.PLAIN);
+    }
+
+    private static void drain(Spliterator<MergedAnnotation<Annotation>> spliterator, List<String> target) {
+        spliterator.forEachRemaining(annotation -> target.add(describe(annotation)));
+    }
+
+    private static List<String> describe(List<MergedAnnotation<Annotation>> annotations) {
+        return annotations.stream().map(MultipleAliasAnnotationsSpliteratorTests::describe)
+                .collect(Collectors.toList());
+    }
+
+    private static String describe(MergedAnnotation<?> annotation) {
+        return annotation.getType().getSimpleName() + "@" + annotation.getAggregateIndex() +
+                "/" + annotation.getDistance();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Inner {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Inner
+    @interface Middle {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Middle
+    @interface Outer {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Plain {
+    }
+
+    @Outer
+    static class Parent {
+    }
+
+    @Outer
+    @Plain
+    static class Child extends Parent {
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MyAliasForIndex}, as generated for the test sources by the
+ * {@code MyAliasForProcessor}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class MyAliasForIndexTests {
+
+    @Test
+    public void annotationTypesDeclaringAliasesAreIndexed() {
+        assertTrue(MyAliasForIndex.forAnnotationType(AlisforsTests.Test5.class).isIndexed(AlisforsTests.Test5.class));
+        assertFalse(MyAliasForIndex.forAnnotationType(AlisforsTests.Test1.class).isIndexed(AlisforsTests.Test1.class));
+    }
+
+    @Test
+    public void aliasTargetsDependOnAliasMode() throws Exception {
+        MyAliasForIndex index = MyAliasForIndex.forAnnotationType(AlisforsTests.Test5.class);
+        Method test1 = AlisforsTests.Test5.class.getDeclaredMethod("test1");
+        assertEquals(Arrays.asList(AlisforsTests.Test5.class.getDeclaredMethod("test2"),
+                AlisforsTests.Test5.class.getDeclaredMethod("test3")), index.getAliasTargets(test1, true));
+        assertEquals(Collections.emptyList(), index.getAliasTargets(test1, false));
+    }
+
+}
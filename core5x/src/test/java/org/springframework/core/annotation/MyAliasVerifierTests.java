@@ -0,0 +1,89 @@
+package org.springframework.core.annotation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MyAliasVerifier}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class MyAliasVerifierTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void verifyWritesDigestOfValidatedTypes() throws IOException {
+        File classes = this.temporaryFolder.newFolder();
+        copyClassFile(AlisforsTests.Test5.class, classes);
+        Properties manifest = MyAliasVerifier.verify(classes, getClass().getClassLoader());
+        assertEquals(1, manifest.size());
+        assertEquals(MyAliasVerifier.digest(AlisforsTests.Test5.class),
+                manifest.getProperty(AlisforsTests.Test5.class.getName()));
+        File file = MyAliasVerifier.writeManifest(manifest, classes);
+        assertTrue(file.isFile());
+    }
+
+    @Test
+    public void digestCoversMetaAnnotations() throws IOException {
+        String digest = MyAliasVerifier.digest(AlisforsTests.Test5.class);
+        assertNotNull(digest);
+        assertEquals(digest, MyAliasVerifier.digest(AlisforsTests.Test5.class));
+        assertNotEquals(digest, MyAliasVerifier.digest(AlisforsTests.Test1.class));
+    }
+
+    @Test
+    public void typesMissingFromManifestAreNotVerified() {
+        assertFalse(MyAliasVerifier.isVerified(AlisforsTests.Test5.class));
+    }
+
+    @Test
+    public void typesListedInManifestAreVerified() throws Exception {
+        File classes = this.temporaryFolder.newFolder();
+        copyClassFile(AlisforsTests.Test5.class, classes);
+        final String name = AlisforsTests.Test5.class.getName();
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+                if (!className.equals(name)) {
+                    return super.loadClass(className, resolve);
+                }
+                synchronized (getClassLoadingLock(className)) {
+                    Class<?> type = findLoadedClass(className);
+                    return (type != null ? type : findClass(className));
+                }
+            }
+        };
+        MyAliasVerifier.writeManifest(MyAliasVerifier.verify(classes, classLoader), classes);
+        Class<? extends Annotation> type = classLoader.loadClass(name).asSubclass(Annotation.class);
+        assertTrue(MyAliasVerifier.isVerified(type));
+        assertFalse(MyAliasVerifier.isVerified(AlisforsTests.Test5.class));
+    }
+
+    private static void copyClassFile(Class<?> type, File classes) throws IOException {
+        String path = ClassUtils.convertClassNameToResourcePath(type.getName()) + ClassUtils.CLASS_FILE_SUFFIX;
+        File file = new File(classes, path);
+        assertTrue(file.getParentFile().mkdirs());
+        InputStream in = type.getClassLoader().getResourceAsStream(path);
+        FileCopyUtils.copy(FileCopyUtils.copyToByteArray(in), file);
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.springframework.core.annotation;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MyAnnotationTypeMappingsSnapshot}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class MyAnnotationTypeMappingsSnapshotTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void unload() {
+        MyAnnotationTypeMappingsSnapshot.unload();
+        MyAnnotatedElementUtils.clearCache();
+    }
+
+    @Test
+    public void restoredMappingsMatchBuiltMappings() throws IOException {
+        MyAnnotatedElementUtils.clearCache();
+        MyAnnotationTypeMappings built = MyAnnotationTypeMappings.forMultipleAnnotationType(AlisforsTests.Test7.class,
+                RepeatableContainers.none(), AnnotationFilter.PLAIN);
+        AlisforsTests.Test5 expected = MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+
+        File file = this.temporaryFolder.newFile("mappings.snapshot");
+        assertTrue(MyAnnotationTypeMappingsSnapshot.write(file) > 0);
+        MyAnnotatedElementUtils.clearCache();
+        MyAnnotationTypeMappingsSnapshot snapshot = MyAnnotationTypeMappingsSnapshot.load(file);
+
+        MyAnnotationTypeMappings restored = MyAnnotationTypeMappings.forMultipleAnnotationType(AlisforsTests.Test7.class,
+                RepeatableContainers.none(), AnnotationFilter.PLAIN);
+        assertNotSame(built, restored);
+        assertEquals(1, snapshot.getRestoredCount());
+        assertEquals(built.size(), restored.size());
+        for (int i = 0; i < built.size(); i++) {
+            MyAnnotationTypeMapping builtMapping = built.get(i);
+            MyAnnotationTypeMapping restoredMapping = restored.get(i);
+            assertSame(builtMapping.getAnnotationType(), restoredMapping.getAnnotationType());
+            assertSame(builtMapping.getAnnotation(), restoredMapping.getAnnotation());
+            assertEquals(builtMapping.getDistance(), restoredMapping.getDistance());
+            assertEquals(builtMapping.isSynthesizable(), restoredMapping.isSynthesizable());
+            assertEquals(builtMapping.getMirrorSets().size(), restoredMapping.getMirrorSets().size());
+            for (int j = 0; j < builtMapping.getAttributes().size(); j++) {
+                assertEquals(builtMapping.getAliasMapping(j), restoredMapping.getAliasMapping(j));
+                assertEquals(builtMapping.getConventionMapping(j), restoredMapping.getConventionMapping(j));
+                assertEquals(builtMapping.getAnnotationValueMapping(j), restoredMapping.getAnnotationValueMapping(j));
+                assertEquals(builtMapping.getMirrorSets().getAssignedIndex(j),
+                        restoredMapping.getMirrorSets().getAssignedIndex(j));
+                MyAnnotationTypeMapping builtSource = builtMapping.getAnnotationValueSource(j);
+                MyAnnotationTypeMapping restoredSource = restoredMapping.getAnnotationValueSource(j);
+                assertEquals(builtSource != null ? builtSource.getAnnotationType() : null,
+                        restoredSource != null ? restoredSource.getAnnotationType() : null);
+            }
+        }
+
+        AlisforsTests.Test5 actual = MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        assertEquals(expected, actual);
+        assertEquals("override the method", actual.test1());
+    }
+
+    @Test
+    public void staleEntryIsRejectedAndRebuilt() throws IOException {
+        MyAnnotatedElementUtils.clearCache();
+        MyAnnotationTypeMappings built = MyAnnotationTypeMappings.forMultipleAnnotationType(AlisforsTests.Test7.class,
+                RepeatableContainers.none(), AnnotationFilter.PLAIN);
+        File file = this.temporaryFolder.newFile("stale.snapshot");
+        MyAnnotationTypeMappingsSnapshot.write(file);
+        // Pretend Test7 changed since the snapshot was written
+        assertTrue(changeRecordedChecksums(file, AlisforsTests.Test7.class) > 0);
+        MyAnnotatedElementUtils.clearCache();
+        MyAnnotationTypeMappingsSnapshot snapshot = MyAnnotationTypeMappingsSnapshot.load(file);
+
+        MyAnnotationTypeMappings rebuilt = MyAnnotationTypeMappings.forMultipleAnnotationType(AlisforsTests.Test7.class,
+                RepeatableContainers.none(), AnnotationFilter.PLAIN);
+        assertEquals(1, snapshot.getRejectedCount());
+        assertEquals(0, snapshot.getRestoredCount());
+        assertNotSame(built, rebuilt);
+        assertEquals(built.size(), rebuilt.size());
+        for (int i = 0; i < built.size(); i++) {
+            assertSame(built.get(i).getAnnotationType(), rebuilt.get(i).getAnnotationType());
+            assertSame(built.get(i).getAnnotation(), rebuilt.get(i).getAnnotation());
+        }
+        assertEquals("override the method", MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class).test1());
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptSnapshotIsRejected() throws IOException {
+        MyAnnotatedElementUtils.getMergedAnnotationWithMultipleAliases(
+                AlisforsTests.Element4.class, AlisforsTests.Test5.class);
+        File file = this.temporaryFolder.newFile("corrupt.snapshot");
+        MyAnnotationTypeMappingsSnapshot.write(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 0xFF);
+        }
+        MyAnnotationTypeMappingsSnapshot.load(file);
+    }
+
+    /**
+     * Invert the class file checksum recorded for every mapping of the given
+     * type and fix up the snapshot checksum, so that the file still loads.
+     */
+    private static int changeRecordedChecksums(File file, Class<?> type) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int changed = 0;
+        for (int i = 16; i + 4 + name.length + 8 <= bytes.length; i++) {
+            if (buffer.getInt(i) == name.length && regionMatches(bytes, i + 4, name)) {
+                int checksumOffset = i + 4 + name.length;
+                buffer.putLong(checksumOffset, ~buffer.getLong(checksumOffset));
+                changed++;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 16, bytes.length - 16);
+        buffer.putInt(12, (int) crc.getValue());
+        Files.write(file.toPath(), bytes);
+        return changed;
+    }
+
+    private static boolean regionMatches(byte[] bytes, int offset, byte[] region) {
+        for (int i = 0; i < region.length; i++) {
+            if (bytes[offset + i] != region[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
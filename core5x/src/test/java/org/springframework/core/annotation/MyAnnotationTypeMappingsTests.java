@@ -0,0 +1,239 @@
+package org.springframework.core.annotation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the compacted and shared form of {@link MyAnnotationTypeMappings}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class MyAnnotationTypeMappingsTests {
+
+    @Test
+    public void concurrentLookupsShareOneBuild() throws Exception {
+        MyAnnotationTypeMappings.clearCache();
+        int threadCount = 8;
+        CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<MyAnnotationTypeMappings>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return MyAnnotationTypeMappings.forAnnotationType(Composed.class);
+                }));
+            }
+            MyAnnotationTypeMappings first = futures.get(0).get();
+            for (Future<MyAnnotationTypeMappings> future : futures) {
+                assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void otherTypesResolveWhileABuildIsInFlight() throws Exception {
+        BlockingFilter filter = new BlockingFilter("inFlightBuild");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MyAnnotationTypeMappings> composed = executor.submit(() -> {
+                filter.blockCurrentThread();
+                return MyAnnotationTypeMappings.forAnnotationType(Composed.class, filter);
+            });
+            assertTrue(filter.awaitBlocked());
+            MyAnnotationTypeMappings other = MyAnnotationTypeMappings.forAnnotationType(OtherComposed.class, filter);
+            assertEquals(Middle.class, other.get(1).getAnnotationType());
+            assertFalse(composed.isDone());
+            filter.release();
+            assertEquals(3, composed.get(10, TimeUnit.SECONDS).size());
+        } finally {
+            filter.release();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void lookupsServedByAnInFlightBuildAreRecordedAsWaits() throws Exception {
+        BlockingFilter filter = new BlockingFilter("waitingLookup");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MyAnnotationTypeMappings> building = executor.submit(() -> {
+                filter.blockCurrentThread();
+                return MyAnnotationTypeMappings.forAnnotationType(Composed.class, filter);
+            });
+            assertTrue(filter.awaitBlocked());
+            Future<MyAnnotationTypeMappings> waiting = executor.submit(() ->
+                    MyAnnotationTypeMappings.forAnnotationType(Composed.class, filter));
+            AnnotationCacheStatistics statistics = AnnotationCacheStatistics.get("standardRepeatables[" + filter + "]");
+            assertNotNull(statistics);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (statistics.getWaitCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            filter.release();
+            assertSame(building.get(10, TimeUnit.SECONDS), waiting.get(10, TimeUnit.SECONDS));
+            assertEquals(0, statistics.getHitCount());
+            assertEquals(1, statistics.getMissCount());
+            assertEquals(1, statistics.getWaitCount());
+            assertEquals(1, statistics.getLoadCount());
+        } finally {
+            filter.release();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void aliasModesAreCachedSeparately() {
+        MyAnnotationTypeMappings.clearCache();
+        MyAnnotationTypeMappings single = MyAnnotationTypeMappings.forAnnotationType(Composed.class);
+        MyAnnotationTypeMappings multiple = MyAnnotationTypeMappings.forMultipleAnnotationType(Composed.class);
+        assertFalse(single.isMultipleAliasesEnabled());
+        assertTrue(multiple.isMultipleAliasesEnabled());
+        assertSame(single, MyAnnotationTypeMappings.forAnnotationType(Composed.class));
+        assertSame(multiple, MyAnnotationTypeMappings.forMultipleAnnotationType(Composed.class));
+    }
+
+    @Test
+    public void containsTypeByClassAndName() {
+        MyAnnotationTypeMappings mappings = MyAnnotationTypeMappings.forAnnotationType(Composed.class);
+        assertTrue(mappings.containsType(Base.class));
+        assertTrue(mappings.containsType(Middle.class.getName()));
+        assertFalse(mappings.containsType(Retention.class));
+        assertFalse(mappings.containsType("com.example.Unknown"));
+    }
+
+    @Test
+    public void clearCacheInvalidatesPerTypeMappings() {
+        MyAnnotationTypeMappings mappings = MyAnnotationTypeMappings.forAnnotationType(Composed.class);
+        assertSame(mappings, MyAnnotationTypeMappings.forAnnotationType(Composed.class));
+        MyAnnotationTypeMappings.clearCache();
+        assertNotSame(mappings, MyAnnotationTypeMappings.forAnnotationType(Composed.class));
+    }
+
+    @Test
+    public void metaTypesFollowSourceChain() {
+        MyAnnotationTypeMappings mappings = MyAnnotationTypeMappings.forAnnotationType(Composed.class);
+        assertEquals(3, mappings.size());
+        assertEquals(Arrays.asList(Composed.class), mappings.get(0).getMetaTypes());
+        assertEquals(Arrays.asList(Composed.class, Middle.class, Base.class), mappings.get(2).getMetaTypes());
+    }
+
+    @Test
+    public void compactedTablesKeepPerMappingValues() {
+        MyAnnotationTypeMappings mappings = MyAnnotationTypeMappings.forAnnotationType(Composed.class);
+        MyAnnotationTypeMapping middle = mappings.get(1);
+        MyAnnotationTypeMapping base = mappings.get(2);
+        assertEquals(0, middle.getConventionMapping(0));
+        assertEquals(-1, middle.getConventionMapping(1));
+        assertEquals(0, base.getConventionMapping(0));
+        assertEquals(0, base.getAnnotationValueMapping(0));
+        assertEquals(middle, base.getAnnotationValueSource(0));
+        assertEquals("middle", base.getMappedAnnotationValue(0, false));
+    }
+
+    @Test
+    public void metaAnnotationMirrorSetsAreSharedAcrossRoots() {
+        MyAnnotationTypeMapping fromComposed = MyAnnotationTypeMappings.forAnnotationType(Composed.class).get(1);
+        MyAnnotationTypeMapping fromOther = MyAnnotationTypeMappings.forAnnotationType(OtherComposed.class).get(1);
+        assertEquals(Middle.class, fromOther.getAnnotationType());
+        assertSame(fromComposed.getMirrorSets(), fromOther.getMirrorSets());
+    }
+
+
+    /**
+     * Filters like {@link AnnotationFilter#PLAIN}, but blocks the thread
+     * building the mappings on {@link Middle} until released.
+     */
+    private static class BlockingFilter implements AnnotationFilter {
+
+        private final String name;
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private volatile Thread blockedThread;
+
+        BlockingFilter(String name) {
+            this.name = name;
+        }
+
+        void blockCurrentThread() {
+            this.blockedThread = Thread.currentThread();
+        }
+
+        boolean awaitBlocked() throws InterruptedException {
+            return this.blocked.await(10, TimeUnit.SECONDS);
+        }
+
+        void release() {
+            this.released.countDown();
+        }
+
+        @Override
+        public boolean matches(String typeName) {
+            if (Thread.currentThread() == this.blockedThread && typeName.equals(Middle.class.getName())) {
+                this.blocked.countDown();
+                try {
+                    this.released.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return AnnotationFilter.PLAIN.matches(typeName);
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Base {
+
+        String name() default "";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Base(name = "base")
+    @interface Middle {
+
+        String name() default "middle";
+
+        int order() default 0;
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Middle(name = "middle")
+    @interface Composed {
+
+        String name() default "";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Middle(name = "other")
+    @interface OtherComposed {
+    }
+
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor that resolves and validates every {@code @MyAliasFor}
+ * and {@code @MyAliasFors} declaration at compile time and writes the resolved
+ * alias tables to {@value #INDEX_LOCATION}.
+ *
+ * <p>At runtime, {@code MyAliasForIndex} loads the index and the alias targets
+ * of indexed annotation types are taken from it instead of being resolved and
+ * validated through reflection. Misconfigured aliases are reported as
+ * compilation errors with the same messages as the runtime
+ * {@code AnnotationConfigurationException}s.
+ *
+ * <p>The index is a properties file with three kinds of entries:
+ * <ul>
+ * <li>{@code <type>=<attribute>,...}: the attributes of an indexed annotation
+ * type that declare aliases</li>
+ * <li>{@code <type>#<attribute>=<target type>#<target attribute>}: the target
+ * of an attribute annotated with {@code @MyAliasFor}</li>
+ * <li>{@code <type>#<attribute>[]=<target type>#<target attribute>,...}: the
+ * targets of an attribute annotated with {@code @MyAliasFors}</li>
+ * </ul>
+ * Type names are binary names, as returned by {@link Class#getName()}.
+ *
+ * @author ZiCheng Zhang
+ * @since 5.3
+ */
+@SupportedAnnotationTypes({MyAliasForProcessor.ALIAS_FOR, MyAliasForProcessor.ALIAS_FORS})
+public class MyAliasForProcessor extends AbstractProcessor {
+
+    /**
+     * The location of the generated index, relative to the class output.
+     */
+    public static final String INDEX_LOCATION = "META-INF/my-alias-for.index";
+
+    static final String ALIAS_FOR = "org.springframework.core.annotation.MyAliasFor";
+
+    static final String ALIAS_FORS = "org.springframework.core.annotation.MyAliasFors";
+
+    private final Map<String, String> index = new TreeMap<>();
+
+    private final Set<String> processedTypes = new HashSet<>();
+
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                Element enclosing = element.getEnclosingElement();
+                if (element.getKind() == ElementKind.METHOD && enclosing.getKind() == ElementKind.ANNOTATION_TYPE) {
+                    processAnnotationType((TypeElement) enclosing);
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !roundEnv.errorRaised() && !this.index.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void processAnnotationType(TypeElement annotationType) {
+        String typeName = binaryName(annotationType);
+        if (!this.processedTypes.add(typeName)) {
+            return;
+        }
+        List<String> aliasedAttributes = new ArrayList<>();
+        Map<String, String> entries = new LinkedHashMap<>();
+        boolean valid = true;
+        for (ExecutableElement attribute : ElementFilter.methodsIn(annotationType.getEnclosedElements())) {
+            AnnotationMirror aliasFor = getAnnotationMirror(attribute, ALIAS_FOR);
+            AnnotationMirror aliasFors = getAnnotationMirror(attribute, ALIAS_FORS);
+            if (aliasFor == null && aliasFors == null) {
+                continue;
+            }
+            aliasedAttributes.add(attribute.getSimpleName().toString());
+            String key = typeName + "#" + attribute.getSimpleName();
+            if (aliasFor != null) {
+                ExecutableElement target = resolveAliasTarget(annotationType, attribute, aliasFor);
+                valid &= (target != null);
+                if (target != null) {
+                    entries.put(key, toIndexEntry(target));
+                }
+            }
+            if (aliasFors != null) {
+                List<String> targets = new ArrayList<>();
+                for (AnnotationMirror nested : getNestedAliasFors(aliasFors)) {
+                    ExecutableElement target = resolveAliasTarget(annotationType, attribute, nested);
+                    valid &= (target != null);
+                    if (target != null) {
+                        targets.add(toIndexEntry(target));
+                    }
+                }
+                entries.put(key + "[]", String.join(",", targets));
+            }
+        }
+        if (valid && !aliasedAttributes.isEmpty()) {
+            this.index.put(typeName, String.join(",", aliasedAttributes));
+            this.index.putAll(entries);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AnnotationMirror> getNestedAliasFors(AnnotationMirror aliasFors) {
+        AnnotationValue value = getValue(aliasFors, "value");
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<AnnotationMirror> result = new ArrayList<>();
+        for (AnnotationValue nested : (List<? extends AnnotationValue>) value.getValue()) {
+            result.add((AnnotationMirror) nested.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Resolve the target of the given alias declaration, reporting an error
+     * and returning {@code null} if the declaration is misconfigured.
+     */
+    private ExecutableElement resolveAliasTarget(TypeElement annotationType, ExecutableElement attribute,
+                                                 AnnotationMirror aliasFor) {
+
+        String value = getStringValue(aliasFor, "value");
+        String attributeName = getStringValue(aliasFor, "attribute");
+        if (!value.isEmpty() && !attributeName.isEmpty()) {
+            return error(attribute, aliasFor, String.format(
+                    "In @AliasFor declared on %s, attribute 'attribute' and its alias 'value' " +
+                            "are present with values of '%s' and '%s', but only one is permitted.",
+                    describe(attribute), attributeName, value));
+        }
+        TypeElement targetAnnotation = annotationType;
+        AnnotationValue annotationValue = getValue(aliasFor, "annotation");
+        if (annotationValue != null && annotationValue.getValue() instanceof DeclaredType) {
+            TypeElement declared = (TypeElement) ((DeclaredType) annotationValue.getValue()).asElement();
+            if (!declared.getQualifiedName().contentEquals("java.lang.annotation.Annotation")) {
+                targetAnnotation = declared;
+            }
+        }
+        String targetAttributeName = (!attributeName.isEmpty() ? attributeName :
+                (!value.isEmpty() ? value : attribute.getSimpleName().toString()));
+        ExecutableElement target = findAttribute(targetAnnotation, targetAttributeName);
+        if (target == null) {
+            if (targetAnnotation == annotationType) {
+                return error(attribute, aliasFor, String.format(
+                        "@AliasFor declaration on %s declares an alias for '%s' which is not present.",
+                        describe(attribute), targetAttributeName));
+            }
+            return error(attribute, aliasFor, String.format(
+                    "%s is declared as an @AliasFor nonexistent attribute '%s' in annotation [%s].",
+                    capitalize(describe(attribute)), targetAttributeName, binaryName(targetAnnotation)));
+        }
+        if (target.equals(attribute)) {
+            return error(attribute, aliasFor, String.format(
+                    "@AliasFor declaration on %s points to itself. " +
+                            "Specify 'annotation' to point to a same-named attribute on a meta-annotation.",
+                    describe(attribute)));
+        }
+        if (!isCompatibleReturnType(attribute.getReturnType(), target.getReturnType())) {
+            return error(attribute, aliasFor, String.format(
+                    "Misconfigured aliases: %s and %s must declare the same return type.",
+                    describe(attribute), describe(target)));
+        }
+        if (targetAnnotation == annotationType) {
+            if (!declaresAliasFor(annotationType, target, attribute.getSimpleName().toString())) {
+                return error(attribute, aliasFor, String.format(
+                        "%s must be declared as an @AliasFor %s.",
+                        capitalize(describe(target)), describe(attribute)));
+            }
+            if (attribute.getDefaultValue() == null || target.getDefaultValue() == null) {
+                return error(attribute, aliasFor, String.format(
+                        "Misconfigured aliases: %s and %s must declare default values.",
+                        describe(attribute), describe(target)));
+            }
+            if (!isSameValue(attribute.getDefaultValue().getValue(), target.getDefaultValue().getValue())) {
+                return error(attribute, aliasFor, String.format(
+                        "Misconfigured aliases: %s and %s must declare the same default value.",
+                        describe(attribute), describe(target)));
+            }
+        } else if (!isMetaPresent(annotationType, targetAnnotation, new HashSet<>())) {
+            return error(attribute, aliasFor, String.format(
+                    "@AliasFor declaration on %s declares an alias for %s which is not meta-present.",
+                    describe(attribute), describe(target)));
+        }
+        return target;
+    }
+
+    private boolean declaresAliasFor(TypeElement annotationType, ExecutableElement attribute, String aliasName) {
+        List<AnnotationMirror> aliasFors = new ArrayList<>();
+        AnnotationMirror aliasFor = getAnnotationMirror(attribute, ALIAS_FOR);
+        if (aliasFor != null) {
+            aliasFors.add(aliasFor);
+        }
+        AnnotationMirror container = getAnnotationMirror(attribute, ALIAS_FORS);
+        if (container != null) {
+            aliasFors.addAll(getNestedAliasFors(container));
+        }
+        for (AnnotationMirror candidate : aliasFors) {
+            AnnotationValue annotationValue = getValue(candidate, "annotation");
+            if (annotationValue != null && annotationValue.getValue() instanceof DeclaredType) {
+                Element declared = ((DeclaredType) annotationValue.getValue()).asElement();
+                if (declared != annotationType &&
+                        !((TypeElement) declared).getQualifiedName().contentEquals("java.lang.annotation.Annotation")) {
+                    continue;
+                }
+            }
+            String name = getStringValue(candidate, "attribute");
+            if (name.isEmpty()) {
+                name = getStringValue(candidate, "value");
+            }
+            if (name.isEmpty()) {
+                name = attribute.getSimpleName().toString();
+            }
+            if (name.equals(aliasName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isMetaPresent(TypeElement annotationType, TypeElement metaAnnotationType, Set<TypeElement> visited) {
+        if (!visited.add(annotationType)) {
+            return false;
+        }
+        for (AnnotationMirror annotation : annotationType.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.equals(metaAnnotationType)) {
+                return true;
+            }
+            if (!type.getQualifiedName().toString().startsWith("java.lang.annotation.") &&
+                    isMetaPresent(type, metaAnnotationType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCompatibleReturnType(TypeMirror attributeType, TypeMirror targetType) {
+        return (processingEnv.getTypeUtils().isSameType(attributeType, targetType) ||
+                (targetType.getKind() == TypeKind.ARRAY &&
+                        processingEnv.getTypeUtils().isSameType(attributeType, ((ArrayType) targetType).getComponentType())));
+    }
+
+    private boolean isSameValue(Object value, Object other) {
+        if (value instanceof TypeMirror && other instanceof TypeMirror) {
+            return processingEnv.getTypeUtils().isSameType((TypeMirror) value, (TypeMirror) other);
+        }
+        if (value instanceof List && other instanceof List) {
+            List<?> values = (List<?>) value;
+            List<?> others = (List<?>) other;
+            if (values.size() != others.size()) {
+                return false;
+            }
+            for (int i = 0; i < values.size(); i++) {
+                if (!isSameValue(((AnnotationValue) values.get(i)).getValue(),
+                        ((AnnotationValue) others.get(i)).getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof AnnotationMirror && other instanceof AnnotationMirror) {
+            return value.toString().equals(other.toString());
+        }
+        return value.equals(other);
+    }
+
+    private ExecutableElement findAttribute(TypeElement annotationType, String name) {
+        for (ExecutableElement attribute : ElementFilter.methodsIn(annotationType.getEnclosedElements())) {
+            if (attribute.getSimpleName().contentEquals(name) && attribute.getParameters().isEmpty()) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    private AnnotationMirror getAnnotationMirror(Element element, String annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private AnnotationValue getValue(AnnotationMirror annotation, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private String getStringValue(AnnotationMirror annotation, String name) {
+        AnnotationValue value = getValue(annotation, name);
+        return (value != null && value.getValue() instanceof String ? (String) value.getValue() : "");
+    }
+
+    private ExecutableElement error(Element element, AnnotationMirror annotation, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element, annotation);
+        return null;
+    }
+
+    private String describe(ExecutableElement attribute) {
+        return "attribute '" + attribute.getSimpleName() + "' in annotation [" +
+                binaryName((TypeElement) attribute.getEnclosingElement()) + "]";
+    }
+
+    private String toIndexEntry(ExecutableElement attribute) {
+        return binaryName((TypeElement) attribute.getEnclosingElement()) + "#" + attribute.getSimpleName();
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (Map.Entry<String, String> entry : this.index.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + INDEX_LOCATION + ": " + ex.getMessage());
+        }
+    }
+
+}
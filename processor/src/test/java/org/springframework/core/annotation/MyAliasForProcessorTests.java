@@ -0,0 +1,158 @@
+package org.springframework.core.annotation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MyAliasForProcessor}.
+ *
+ * @author ZiCheng Zhang
+ */
+public class MyAliasForProcessorTests {
+
+    private static final String ALIAS_FOR = "package org.springframework.core.annotation;\n" +
+            "import java.lang.annotation.*;\n" +
+            "@Repeatable(MyAliasFors.class) @Retention(RetentionPolicy.RUNTIME) @Target(ElementType.METHOD)\n" +
+            "public @interface MyAliasFor {\n" +
+            "  @MyAliasFor(\"attribute\") String value() default \"\";\n" +
+            "  @MyAliasFor(\"value\") String attribute() default \"\";\n" +
+            "  Class<? extends Annotation> annotation() default Annotation.class;\n" +
+            "}\n";
+
+    private static final String ALIAS_FORS = "package org.springframework.core.annotation;\n" +
+            "import java.lang.annotation.*;\n" +
+            "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.METHOD)\n" +
+            "public @interface MyAliasFors {\n" +
+            "  MyAliasFor[] value() default {};\n" +
+            "}\n";
+
+    private static final String BASES = "package example;\n" +
+            "import java.lang.annotation.*;\n" +
+            "@Retention(RetentionPolicy.RUNTIME) @interface First { String name() default \"\"; }\n" +
+            "@Retention(RetentionPolicy.RUNTIME) @interface Second { String title() default \"\"; }\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void writesResolvedAliasTables() throws IOException {
+        String composed = "package example;\n" +
+                "import org.springframework.core.annotation.*;\n" +
+                "import java.lang.annotation.*;\n" +
+                "@Retention(RetentionPolicy.RUNTIME) @First @Second\n" +
+                "public @interface Composed {\n" +
+                "  @MyAliasFor(\"label\") String value() default \"\";\n" +
+                "  @MyAliasFor(\"value\") String label() default \"\";\n" +
+                "  @MyAliasFor(annotation = First.class, attribute = \"name\")\n" +
+                "  @MyAliasFor(annotation = Second.class, attribute = \"title\")\n" +
+                "  String both() default \"\";\n" +
+                "}\n";
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        File output = compile(diagnostics, source("example/Bases.java", BASES), source("example/Composed.java", composed));
+        assertTrue(diagnostics.getDiagnostics().toString(), errors(diagnostics).isEmpty());
+
+        Properties index = loadIndex(output);
+        assertEquals("value,label,both", index.getProperty("example.Composed"));
+        assertEquals("example.Composed#label", index.getProperty("example.Composed#value"));
+        assertEquals("example.Composed#value", index.getProperty("example.Composed#label"));
+        assertEquals("example.First#name,example.Second#title", index.getProperty("example.Composed#both[]"));
+        assertFalse(index.containsKey("example.Composed#both"));
+        assertEquals("org.springframework.core.annotation.MyAliasFor#attribute",
+                index.getProperty("org.springframework.core.annotation.MyAliasFor#value"));
+    }
+
+    @Test
+    public void reportsMisconfiguredAliases() throws IOException {
+        String broken = "package example;\n" +
+                "import org.springframework.core.annotation.*;\n" +
+                "import java.lang.annotation.*;\n" +
+                "@Retention(RetentionPolicy.RUNTIME)\n" +
+                "public @interface Broken {\n" +
+                "  @MyAliasFor(annotation = First.class, attribute = \"name\") String name() default \"\";\n" +
+                "  @MyAliasFor(\"missing\") String other() default \"\";\n" +
+                "}\n";
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        File output = compile(diagnostics, source("example/Bases.java", BASES), source("example/Broken.java", broken));
+        List<String> errors = errors(diagnostics);
+        assertEquals(errors.toString(), 2, errors.size());
+        assertTrue(errors.get(0), errors.get(0).contains("which is not meta-present"));
+        assertTrue(errors.get(1), errors.get(1).contains("declares an alias for 'missing' which is not present"));
+        assertFalse(new File(output, MyAliasForProcessor.INDEX_LOCATION).exists());
+    }
+
+    private File compile(DiagnosticCollector<JavaFileObject> diagnostics, JavaFileObject... sources)
+            throws IOException {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File output = this.temporaryFolder.newFolder();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output));
+            List<JavaFileObject> units = new ArrayList<JavaFileObject>(Arrays.asList(sources));
+            units.add(source("org/springframework/core/annotation/MyAliasFor.java", ALIAS_FOR));
+            units.add(source("org/springframework/core/annotation/MyAliasFors.java", ALIAS_FORS));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Collections.singletonList("-proc:only"), null, units);
+            task.setProcessors(Collections.singletonList(new MyAliasForProcessor()));
+            task.call();
+        } finally {
+            fileManager.close();
+        }
+        return output;
+    }
+
+    private static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        List<String> errors = new ArrayList<String>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private static Properties loadIndex(File output) throws IOException {
+        Properties index = new Properties();
+        InputStream in = new FileInputStream(new File(output, MyAliasForProcessor.INDEX_LOCATION));
+        try {
+            index.load(in);
+        } finally {
+            in.close();
+        }
+        return index;
+    }
+
+    private static JavaFileObject source(String path, final String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + path), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+}